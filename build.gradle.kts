@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.5"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com"
@@ -27,12 +28,26 @@ repositories {
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter")
     compileOnly("org.projectlombok:lombok")
+    compileOnly("io.micrometer:micrometer-core")
     runtimeOnly("com.mysql:mysql-connector-j")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testRuntimeOnly("com.h2database:h2")
+    testRuntimeOnly("org.xerial:sqlite-jdbc")
+    jmhRuntimeOnly("com.h2database:h2")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// ./gradlew jmh -PjmhIncludes=ConnectionProfile
+jmh {
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+    findProperty("jmhIncludes")?.let { includes = listOf(it.toString()) }
+    // -Psimpledb.password=... → 벤치마크 JVM 의 시스템 프로퍼티로 전달
+    jvmArgsAppend = properties.filterKeys { it.startsWith("simpledb.") }.map { (key, value) -> "-D$key=$value" }
+}
@@ -0,0 +1,86 @@
+package com.back;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    ConnectionProperties 프로필 비교 (로컬 MySQL 필요)
+    ./gradlew jmh -PjmhIncludes=ConnectionProfile -Psimpledb.password=...
+
+    접속 정보: simpledb.host, simpledb.username, simpledb.password, simpledb.dbName (-P 로 넘기면 시스템 프로퍼티로 전달됨)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConnectionProfileBenchmark {
+    private static final int ROWS = 1_000;
+
+    @Param({"defaults", "highThroughput"})
+    public String profile;
+
+    private SimpleDb simpleDb;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        simpleDb = new SimpleDb(
+                System.getProperty("simpledb.host", "localhost"),
+                System.getProperty("simpledb.username", "root"),
+                System.getProperty("simpledb.password", ""),
+                System.getProperty("simpledb.dbName", "simpleDb__bench")
+        );
+        simpleDb.setConnectionProperties(profile.equals("highThroughput")
+                ? ConnectionProperties.highThroughput()
+                : ConnectionProperties.defaults());
+
+        simpleDb.run("DROP TABLE IF EXISTS bench_article");
+        simpleDb.run("""
+                CREATE TABLE bench_article (
+                    id INT UNSIGNED NOT NULL AUTO_INCREMENT,
+                    PRIMARY KEY(id),
+                    title VARCHAR(100) NOT NULL,
+                    hits INT NOT NULL DEFAULT 0
+                )
+                """);
+
+        BatchSql batch = simpleDb.genBatch("INSERT INTO bench_article SET title = ?");
+        for (int i = 1; i <= ROWS; i++) {
+            batch.add("제목" + i);
+        }
+        batch.insert();
+        simpleDb.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        simpleDb.run("DROP TABLE IF EXISTS bench_article");
+        simpleDb.shutdown();
+    }
+
+    @TearDown(Level.Iteration)
+    public void releaseConnection() {
+        simpleDb.close();
+    }
+
+    @Benchmark
+    public String pointSelect() {
+        return simpleDb.genSql()
+                .append("SELECT title FROM bench_article WHERE id = ?", randomId())
+                .selectString();
+    }
+
+    // startTransaction / commit 의 setAutoCommit 왕복이 차이를 만드는 구간
+    @Benchmark
+    public void updateInTransaction() {
+        simpleDb.startTransaction();
+        simpleDb.genSql()
+                .append("UPDATE bench_article SET hits = hits + 1 WHERE id = ?", randomId())
+                .update();
+        simpleDb.commit();
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+    }
+}
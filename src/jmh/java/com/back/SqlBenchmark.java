@@ -0,0 +1,178 @@
+package com.back;
+
+import com.back.fake.FakeJdbc;
+import com.back.fake.FakeTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/*
+    Sql 빌더 / 결과 매핑 벤치마크
+    ./gradlew jmh -PjmhIncludes=SqlBenchmark
+
+    기본은 가짜 JDBC(FakeJdbc) 로 DB 없이 돈다.
+    -Psimpledb.backend=mysql (+ simpledb.host, simpledb.password ...) 이면 로컬 MySQL 의 bench_article 테이블로 돈다.
+    -Psimpledb.backend=h2 이면 내장 H2(메모리) 로 돈다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SqlBenchmark {
+    @Param({"10", "1000"})
+    public int rows;
+
+    private SimpleDb simpleDb;
+    private Object[] ids;
+    private CompiledSql compiledSelectRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        simpleDb = new SimpleDb(
+                System.getProperty("simpledb.host", "localhost"),
+                System.getProperty("simpledb.username", "root"),
+                System.getProperty("simpledb.password", ""),
+                System.getProperty("simpledb.dbName", "simpleDb__bench")
+        );
+        // 실행 통계 없이 순수 실행 비용만 (결과 캐시, SQL 로그는 기본 꺼짐)
+        simpleDb.getMetrics().setEnabled(false);
+
+        String backend = System.getProperty("simpledb.backend", "fake");
+        if (backend.equals("h2")) {
+            simpleDb.shutdown();
+            simpleDb = SimpleDb.embedded(Dialect.H2, "simpleDb__bench");
+            simpleDb.getMetrics().setEnabled(false);
+        }
+
+        if (backend.equals("mysql") || backend.equals("h2")) {
+            createTable();
+        } else {
+            FakeTable articles = fakeArticles(rows);
+            FakeTable articleIds = fakeArticleIds(rows);
+            simpleDb.setConnectionFactory(FakeJdbc.connectionFactory(sql -> sql.startsWith("SELECT id ") ? articleIds : articles));
+        }
+
+        ids = LongStream.rangeClosed(1, rows).boxed().toArray();
+        compiledSelectRows = simpleDb.genSql()
+                .append("SELECT * FROM bench_article ORDER BY id LIMIT ?")
+                .compile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        simpleDb.shutdown();
+    }
+
+    @Benchmark
+    public String buildAppend() {
+        return simpleDb.genSql()
+                .append("SELECT *")
+                .append("FROM article")
+                .append("WHERE isBlind = ?", false)
+                .append("AND title LIKE ?", "제목%")
+                .append("ORDER BY id DESC")
+                .append("LIMIT ?", 10)
+                .getSql();
+    }
+
+    @Benchmark
+    public String buildAppendIn() {
+        return simpleDb.genSql()
+                .append("SELECT *")
+                .append("FROM article")
+                .appendIn("WHERE id IN (?)", ids)
+                .getSql();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> selectRowsMap() {
+        return simpleDb.genSql()
+                .append("SELECT * FROM bench_article ORDER BY id LIMIT ?", rows)
+                .selectRows();
+    }
+
+    @Benchmark
+    public List<Article> selectRowsArticle() {
+        return simpleDb.genSql()
+                .append("SELECT * FROM bench_article ORDER BY id LIMIT ?", rows)
+                .selectRows(Article.class);
+    }
+
+    // 같은 쿼리를 CompiledSql 로 (빌더/문자열 작업 없이 바인딩만)
+    @Benchmark
+    public List<Article> compiledSelectRowsArticle() {
+        return compiledSelectRows.bind(rows).selectRows(Article.class);
+    }
+
+    // 타입별 파라미터 바인딩 (Long, String, LocalDateTime, Boolean)
+    @Benchmark
+    public long insertArticle() {
+        LocalDateTime now = LocalDateTime.now();
+        return simpleDb.genSql()
+                .append("INSERT INTO bench_article")
+                .append("SET createdDate = ?,", now)
+                .append("modifiedDate = ?,", now)
+                .append("title = ?,", "제목" + rows)
+                .append("`body` = ?,", "내용")
+                .append("isBlind = ?", rows % 2 == 0)
+                .insert();
+    }
+
+    @Benchmark
+    public List<Long> selectLongs() {
+        return simpleDb.genSql()
+                .append("SELECT id FROM bench_article ORDER BY id LIMIT ?", rows)
+                .selectLongs();
+    }
+
+    @Benchmark
+    public long[] selectLongArray() {
+        return simpleDb.genSql()
+                .append("SELECT id FROM bench_article ORDER BY id LIMIT ?", rows)
+                .selectLongArray();
+    }
+
+    private static final String[] ARTICLE_COLUMNS = {"id", "createdDate", "modifiedDate", "title", "body", "isBlind"};
+
+    private static FakeTable fakeArticles(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        Object[][] data = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            data[i] = new Object[]{(long) i + 1, now, now, "제목" + (i + 1), "내용" + (i + 1), i % 2 == 0};
+        }
+        return new FakeTable(ARTICLE_COLUMNS, data);
+    }
+
+    private static FakeTable fakeArticleIds(int count) {
+        Object[][] data = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            data[i] = new Object[]{(long) i + 1};
+        }
+        return new FakeTable(new String[]{"id"}, data);
+    }
+
+    private void createTable() {
+        simpleDb.run("DROP TABLE IF EXISTS bench_article");
+        simpleDb.run("""
+                CREATE TABLE bench_article (
+                    id BIGINT NOT NULL AUTO_INCREMENT,
+                    PRIMARY KEY(id),
+                    createdDate DATETIME NOT NULL,
+                    modifiedDate DATETIME NOT NULL,
+                    title VARCHAR(100) NOT NULL,
+                    `body` VARCHAR(1000) NOT NULL,
+                    isBlind %s NOT NULL
+                )
+                """.formatted(simpleDb.getDialect().getBooleanType()));
+
+        BatchSql batch = simpleDb.genBatch("INSERT INTO bench_article SET createdDate = NOW(), modifiedDate = NOW(), title = ?, `body` = ?, isBlind = ?");
+        for (int i = 1; i <= rows; i++) {
+            batch.add("제목" + i, "내용" + i, i % 2 == 0);
+        }
+        batch.insert();
+        simpleDb.close();
+    }
+}
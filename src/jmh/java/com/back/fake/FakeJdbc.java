@@ -0,0 +1,165 @@
+package com.back.fake;
+
+import com.back.ConnectionFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/*
+    DB 없이 SimpleDb 를 돌리기 위한 가짜 JDBC (벤치마크용)
+    - 모든 SELECT 는 resolver 가 SQL 로 고른 FakeTable 을 돌려준다.
+    - INSERT / UPDATE 는 영향받은 행 1, 생성키 1 을 돌려준다.
+    - 인터페이스는 동적 프록시로 구현한다. (호출마다 붙는 비용은 버전 간 비교에서는 상수)
+ */
+public final class FakeJdbc {
+    private FakeJdbc() {
+    }
+
+    public static ConnectionFactory connectionFactory(Function<String, FakeTable> resolver) {
+        return () -> connection(resolver);
+    }
+
+    public static Connection connection(Function<String, FakeTable> resolver) {
+        boolean[] state = {true, false}; // autoCommit, closed
+
+        return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+            case "prepareStatement" -> preparedStatement(resolver, (String) args[0]);
+            case "getAutoCommit" -> state[0];
+            case "setAutoCommit" -> {
+                state[0] = (Boolean) args[0];
+                yield null;
+            }
+            case "isClosed" -> state[1];
+            case "close" -> {
+                state[1] = true;
+                yield null;
+            }
+            case "isValid" -> !state[1];
+            case "commit", "rollback", "setReadOnly", "setTransactionIsolation", "clearWarnings" -> null;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "FakeConnection";
+            default -> throw new SQLFeatureNotSupportedException(method.getName());
+        });
+    }
+
+    private static PreparedStatement preparedStatement(Function<String, FakeTable> resolver, String sql) {
+        boolean[] closed = {false};
+
+        return proxy(PreparedStatement.class, (proxy, method, args) -> switch (method.getName()) {
+            case "executeQuery" -> resultSet(resolver.apply(sql));
+            case "executeUpdate" -> 1;
+            case "executeBatch" -> new int[]{1};
+            case "getGeneratedKeys" -> resultSet(new FakeTable(new String[]{"GENERATED_KEY"}, new Object[][]{{1L}}));
+            case "setObject", "setLong", "setInt", "setShort", "setByte", "setDouble", "setFloat", "setBigDecimal",
+                 "setString", "setBoolean", "setTimestamp", "setDate", "setTime", "setBytes", "setBinaryStream",
+                 "setCharacterStream", "setNull", "clearParameters", "addBatch", "clearBatch",
+                 "setFetchSize", "setQueryTimeout" -> null;
+            case "isClosed" -> closed[0];
+            case "close" -> {
+                closed[0] = true;
+                yield null;
+            }
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "FakePreparedStatement[" + sql + "]";
+            default -> throw new SQLFeatureNotSupportedException(method.getName());
+        });
+    }
+
+    public static ResultSet resultSet(FakeTable table) {
+        Object[][] rows = table.rows();
+        String[] labels = table.labels();
+        ResultSetMetaData meta = metaData(table);
+        // 현재 행, 마지막으로 읽은 값이 null 이었는지, 닫혔는지
+        int[] cursor = {-1};
+        boolean[] wasNull = {false};
+        boolean[] closed = {false};
+
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            String name = method.getName();
+            switch (name) {
+                case "next":
+                    return ++cursor[0] < rows.length;
+                case "getMetaData":
+                    return meta;
+                case "wasNull":
+                    return wasNull[0];
+                case "close":
+                    closed[0] = true;
+                    return null;
+                case "isClosed":
+                    return closed[0];
+                case "findColumn":
+                    return findColumn(labels, (String) args[0]);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "FakeResultSet";
+                default:
+                    if (!name.startsWith("get") || args == null || args.length == 0) {
+                        throw new SQLFeatureNotSupportedException(name);
+                    }
+            }
+
+            int column = args[0] instanceof String label ? findColumn(labels, label) : (Integer) args[0];
+            Object value = rows[cursor[0]][column - 1];
+            wasNull[0] = value == null;
+
+            return switch (name) {
+                case "getObject" -> args.length == 2 ? convert(value, (Class<?>) args[1]) : value;
+                case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                case "getDouble" -> value == null ? 0.0 : ((Number) value).doubleValue();
+                case "getBoolean" -> value != null && (value instanceof Boolean b ? b : ((Number) value).intValue() != 0);
+                case "getString" -> value == null ? null : value.toString();
+                case "getBigDecimal" -> value == null ? null : new BigDecimal(value.toString());
+                case "getTimestamp" -> value == null ? null
+                        : value instanceof LocalDateTime ldt ? Timestamp.valueOf(ldt) : (Timestamp) value;
+                default -> throw new SQLFeatureNotSupportedException(name);
+            };
+        });
+    }
+
+    private static ResultSetMetaData metaData(FakeTable table) {
+        String[] labels = table.labels();
+
+        return proxy(ResultSetMetaData.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getColumnCount" -> labels.length;
+            case "getColumnLabel", "getColumnName" -> labels[(Integer) args[0] - 1];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "FakeResultSetMetaData";
+            default -> throw new SQLFeatureNotSupportedException(method.getName());
+        });
+    }
+
+    private static int findColumn(String[] labels, String label) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(label)) return i + 1;
+        }
+        throw new SQLException("컬럼 없음: " + label);
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (value == null || type.isInstance(value)) return value;
+        if (type == LocalDateTime.class && value instanceof Timestamp ts) return ts.toLocalDateTime();
+        if (type == Timestamp.class && value instanceof LocalDateTime ldt) return Timestamp.valueOf(ldt);
+        if (type == Long.class && value instanceof Number n) return n.longValue();
+        if (type == Integer.class && value instanceof Number n) return n.intValue();
+        if (type == Boolean.class && value instanceof Number n) return n.intValue() != 0;
+        if (type == String.class) return value.toString();
+        throw new ClassCastException("%s → %s".formatted(value.getClass().getName(), type.getName()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,5 @@
+package com.back.fake;
+
+// 가짜 쿼리 결과 (컬럼 이름 + 행 값)
+public record FakeTable(String[] labels, Object[][] rows) {
+}
@@ -0,0 +1,50 @@
+package com.back;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/*
+    쿼리를 가상 스레드에서 실행하는 실행기
+    - 작업마다 가상 스레드 1개 (커넥션은 그 스레드의 ThreadLocal 로 풀에서 빌림)
+    - 동시에 DB 를 쓰는 작업 수는 세마포어로 maxConcurrency 개까지만 허용
+      (수천 개를 한꺼번에 돌려도 커넥션은 maxConcurrency 개 이하)
+    - 작업이 끝나면 그 스레드의 커넥션을 풀에 반납
+ */
+public class AsyncExecutor {
+    private final SimpleDb simpleDb;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AsyncExecutor(SimpleDb simpleDb, int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency 는 1 이상이어야 합니다: " + maxConcurrency);
+
+        this.simpleDb = simpleDb;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+
+            try {
+                return work.get();
+            } finally {
+                simpleDb.close();
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,169 @@
+package com.back;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/*
+    요청 스레드를 막지 않는 SQL 로거
+    - 요청 스레드는 잠금 없는 링 버퍼에 이벤트만 넣고 바로 돌아간다. (버퍼가 차면 버림)
+    - 백그라운드 스레드 1개가 꺼내서 문자열로 만들어 sink 에 쓴다.
+    - sampleRate(0~1) 비율만 기록하고, 초당 maxEventsPerSecond 건을 넘으면 버린다. (0 이하면 제한 없음)
+ */
+public class AsyncSqlLogger implements SqlLogger {
+    private final int mask;
+    // 칸마다 순번 (Vyukov bounded queue): 순번 == 넣을 위치면 빈 칸, 위치+1 이면 찬 칸
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<SqlLogEvent> events;
+    private final AtomicLong tail = new AtomicLong();
+    // 꺼내는 쪽은 writer 스레드 하나뿐
+    private long head;
+
+    private final Consumer<String> sink;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    @Getter
+    @Setter
+    private volatile double sampleRate = 1.0;
+    @Getter
+    @Setter
+    private volatile int maxEventsPerSecond;
+
+    private final AtomicLong rateWindowSecond = new AtomicLong();
+    private final AtomicLong rateWindowCount = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    public AsyncSqlLogger() {
+        this(8_192, System.out::print);
+    }
+
+    public AsyncSqlLogger(int capacity, Consumer<String> sink) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.events = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+
+        this.sink = sink;
+        this.writer = new Thread(this::drainLoop, "simple-db-sql-logger");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public boolean shouldLog() {
+        if (closed) return false;
+
+        double rate = sampleRate;
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) return false;
+
+        int limit = maxEventsPerSecond;
+        if (limit > 0) {
+            long second = System.currentTimeMillis() / 1_000;
+            long window = rateWindowSecond.get();
+            if (window != second && rateWindowSecond.compareAndSet(window, second)) {
+                rateWindowCount.set(0);
+            }
+            if (rateWindowCount.incrementAndGet() > limit) {
+                dropped.increment();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void log(SqlLogEvent event) {
+        long pos = tail.get();
+
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    events.set(index, event);
+                    sequences.lazySet(index, pos + 1);
+                    return;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // 버퍼가 가득 참 → 요청 스레드를 기다리게 하지 않고 버린다
+                dropped.increment();
+                return;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // 샘플링 제외를 뺀, 속도 제한·버퍼 초과로 버린 이벤트 수
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private SqlLogEvent poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) return null;
+
+        SqlLogEvent event = events.get(index);
+        events.set(index, null);
+        sequences.lazySet(index, head + mask + 1);
+        head++;
+        return event;
+    }
+
+    private void drainLoop() {
+        StringBuilder sb = new StringBuilder(512);
+
+        while (true) {
+            SqlLogEvent event = poll();
+            if (event == null) {
+                if (closed) return;
+                LockSupport.parkNanos(1_000_000);
+                continue;
+            }
+
+            sb.setLength(0);
+            format(sb, event);
+            sink.accept(sb.toString());
+        }
+    }
+
+    private static void format(StringBuilder sb, SqlLogEvent event) {
+        sb.append("\n== Log == [").append(event.threadName()).append("] ")
+                .append(event.durationNanos() / 1_000).append("us\n");
+        sb.append("== Raw SQL ==\n").append(event.sql()).append('\n');
+        sb.append("== Params ==\n");
+        Object[] params = event.params();
+        for (int i = 0; i < params.length; i++) {
+            sb.append('[').append(i + 1).append("] ").append(params[i]).append('\n');
+        }
+        if (event.failed()) {
+            sb.append("== Error ==\n").append(event.error()).append('\n');
+        }
+    }
+}
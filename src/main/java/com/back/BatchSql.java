@@ -0,0 +1,135 @@
+package com.back;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+    같은 SQL 에 파라미터 묶음 여러 개를 모아 JDBC batch 로 실행
+    - chunkSize 개씩 나눠 executeBatch (URL 의 rewriteBatchedStatements=true 로 드라이버가 다중 행 INSERT 로 합쳐 보냄)
+    - insert() 는 모든 행의 생성된 PK 를 순서대로 반환
+
+    simpleDb.genBatch("INSERT INTO article SET title = ?, `body` = ?")
+            .add("제목1", "내용1")
+            .add("제목2", "내용2")
+            .insert();
+ */
+public class BatchSql {
+    private final SimpleDb simpleDb;
+    private final String sql;
+    private final List<Object[]> paramsList = new ArrayList<>();
+    private int chunkSize;
+
+    public BatchSql(SimpleDb simpleDb, String sql) {
+        this.simpleDb = simpleDb;
+        this.sql = sql;
+        this.chunkSize = simpleDb.getBatchSize();
+    }
+
+    public BatchSql add(Object... params) {
+        paramsList.add(params);
+        return this;
+    }
+
+    public BatchSql addAll(List<Object[]> paramsList) {
+        this.paramsList.addAll(paramsList);
+        return this;
+    }
+
+    public BatchSql chunkSize(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다: " + chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public int size() {
+        return paramsList.size();
+    }
+
+    // 파라미터 묶음별 영향을 받은 행 수
+    public int[] execute() {
+        int[] results = new int[paramsList.size()];
+
+        try {
+            PreparedStatement ps = simpleDb.prepareStatement(sql, false);
+            try {
+                for (int from = 0; from < paramsList.size(); from += chunkSize) {
+                    int to = Math.min(from + chunkSize, paramsList.size());
+                    int[] counts = executeChunk(ps, from, to);
+                    System.arraycopy(counts, 0, results, from, counts.length);
+                }
+            } finally {
+                simpleDb.releaseStatement(ps);
+                simpleDb.onWrite(sql);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+
+        return results;
+    }
+
+    // INSERT 실행 → 생성된 PK 전체 반환
+    public long[] insert() {
+        long[] ids = new long[paramsList.size()];
+        int idCount = 0;
+
+        try {
+            PreparedStatement ps = simpleDb.prepareStatement(sql, true);
+            try {
+                for (int from = 0; from < paramsList.size(); from += chunkSize) {
+                    int to = Math.min(from + chunkSize, paramsList.size());
+                    executeChunk(ps, from, to);
+
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        while (rs.next() && idCount < ids.length) {
+                            ids[idCount++] = rs.getLong(1);
+                        }
+                    }
+                }
+            } finally {
+                simpleDb.releaseStatement(ps);
+                simpleDb.onWrite(sql);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+
+        return idCount == ids.length ? ids : Arrays.copyOf(ids, idCount);
+    }
+
+    private int[] executeChunk(PreparedStatement ps, int from, int to) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            ParamBinders binders = simpleDb.getParamBinders();
+            for (int i = from; i < to; i++) {
+                binders.bind(ps, sql, Arrays.asList(paramsList.get(i)));
+                ps.addBatch();
+            }
+            long prepared = System.nanoTime();
+
+            int[] counts = ps.executeBatch();
+
+            simpleDb.recordExecution(sql, List.of(), prepared - start, System.nanoTime() - prepared, 0, affectedRows(counts));
+            return counts;
+        } catch (SQLException e) {
+            simpleDb.recordFailure(sql, List.of(), System.nanoTime() - start, e);
+            throw e;
+        } finally {
+            ps.clearBatch();
+        }
+    }
+
+    // SUCCESS_NO_INFO(-2) 등 음수는 빼고 합산
+    private static long affectedRows(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            if (count > 0) sum += count;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,98 @@
+package com.back;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/*
+    결과 캐시용 빈 복사 (QueryResultCache 참고)
+    - 기본 생성자로 새 객체를 만들고, 필드마다 값을 복사해 채운다. (BeanRowMapper 와 같은 생성자/필드 setter 사용)
+    - 필드 찾기와 MethodHandle 만들기는 클래스마다 한 번만 한다.
+    - 기본 생성자가 없거나 final 필드가 있으면(값을 다시 채울 수 없음) 복사하지 않는다.
+ */
+final class BeanCopier {
+    private record Property(Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+    }
+
+    private static final ConcurrentMap<Class<?>, Optional<BeanCopier>> copiers = new ConcurrentHashMap<>();
+
+    private final Supplier<?> instantiator;
+    private final Property[] properties;
+
+    private BeanCopier(Supplier<?> instantiator, Property[] properties) {
+        this.instantiator = instantiator;
+        this.properties = properties;
+    }
+
+    // 복사할 수 없는 클래스면 null
+    static BeanCopier of(Class<?> clazz) {
+        return copiers.computeIfAbsent(clazz, BeanCopier::compile).orElse(null);
+    }
+
+    // 값 하나라도 valueCopier 가 uncopyable 을 돌려주면 uncopyable
+    Object copy(Object source, UnaryOperator<Object> valueCopier, Object uncopyable) {
+        Object target = instantiator.get();
+
+        for (Property property : properties) {
+            Object value = valueCopier.apply(property.getter.apply(source));
+            if (value == uncopyable) return uncopyable;
+
+            property.setter.accept(target, value);
+        }
+        return target;
+    }
+
+    private static Optional<BeanCopier> compile(Class<?> clazz) {
+        try {
+            if (clazz.isArray() || clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) return Optional.empty();
+            // JDK 타입(컬렉션, Blob 등)은 내부 필드를 복사해도 같은 객체라는 보장이 없다
+            ClassLoader loader = clazz.getClassLoader();
+            if (loader == null || loader == ClassLoader.getPlatformClassLoader()) return Optional.empty();
+
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            Supplier<?> instantiator = BeanRowMapper.instantiator(lookup, clazz);
+
+            List<Property> properties = new ArrayList<>();
+            for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers)) continue;
+                    if (Modifier.isFinal(modifiers)) return Optional.empty();
+
+                    properties.add(new Property(fieldGetter(field), BeanRowMapper.fieldSetter(field)));
+                }
+            }
+
+            return Optional.of(new BeanCopier(instantiator, properties.toArray(Property[]::new)));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // 접근할 수 없는 클래스(JDK 내부 타입 등)는 복사하지 않는다
+            return Optional.empty();
+        }
+    }
+
+    private static Function<Object, Object> fieldGetter(Field field) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+        MethodHandle handle = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+
+        return obj -> {
+            try {
+                return handle.invokeExact(obj);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+    }
+}
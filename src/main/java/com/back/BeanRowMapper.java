@@ -0,0 +1,188 @@
+package com.back;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+    기본 생성자 + setter(없으면 필드) 로 객체를 채우는 매퍼
+    - 컬럼 라벨 → setter/필드 찾기는 컴파일할 때 한 번만 한다.
+    - setter/생성자는 LambdaMetafactory 로 만든 람다로 호출 (리플렉션 호출, 예외 생성 없음)
+ */
+final class BeanRowMapper<T> implements RowMapper<T> {
+    private record ColumnBinding(int columnIndex, BiConsumer<Object, Object> setter,
+                                 Function<Object, Object> converter, boolean primitive) {
+    }
+
+    private final Supplier<T> instantiator;
+    private final ColumnBinding[] bindings;
+
+    private BeanRowMapper(Supplier<T> instantiator, ColumnBinding[] bindings) {
+        this.instantiator = instantiator;
+        this.bindings = bindings;
+    }
+
+    @Override
+    public T map(ResultSet rs) throws SQLException {
+        T obj = instantiator.get();
+
+        for (ColumnBinding binding : bindings) {
+            Object value = rs.getObject(binding.columnIndex);
+
+            if (value == null) {
+                // 기본형 필드는 기본값 그대로 둔다
+                if (!binding.primitive) binding.setter.accept(obj, null);
+                continue;
+            }
+
+            binding.setter.accept(obj, binding.converter.apply(value));
+        }
+
+        return obj;
+    }
+
+    static <T> BeanRowMapper<T> compile(Class<T> clazz, String[] columnLabels) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            Supplier<T> instantiator = instantiator(lookup, clazz);
+
+            List<ColumnBinding> bindings = new ArrayList<>();
+            for (int i = 0; i < columnLabels.length; i++) {
+                String columnName = columnLabels[i];
+
+                // setter 먼저, 없으면 필드 직접 접근
+                Method setter = findSetter(clazz, columnName);
+                if (setter != null) {
+                    Class<?> type = setter.getParameterTypes()[0];
+                    bindings.add(new ColumnBinding(i + 1, setterLambda(lookup, clazz, setter),
+                            ValueConverters.to(type), type.isPrimitive()));
+                    continue;
+                }
+
+                Field field = findField(clazz, columnName);
+                if (field != null) {
+                    Class<?> type = field.getType();
+                    bindings.add(new ColumnBinding(i + 1, fieldSetter(field),
+                            ValueConverters.to(type), type.isPrimitive()));
+                }
+                // 컬럼과 매칭되는 setter/필드 없으면 무시
+            }
+
+            return new BeanRowMapper<>(instantiator, bindings.toArray(ColumnBinding[]::new));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("%s 매퍼를 만들 수 없습니다.".formatted(clazz.getName()), e);
+        }
+    }
+
+    // 컬럼명과 정확히 같은 이름을 먼저 찾고, 없으면 대소문자 무시 (H2 등은 컬럼명을 소문자로 돌려준다)
+    private static Method findSetter(Class<?> clazz, String columnName) {
+        String setterName = "set" + Character.toUpperCase(columnName.charAt(0)) + columnName.substring(1);
+
+        Method ignoreCaseMatch = null;
+        for (Method method : clazz.getMethods()) {
+            if (method.getParameterCount() != 1 || Modifier.isStatic(method.getModifiers())) continue;
+
+            if (method.getName().equals(setterName)) return method;
+            if (ignoreCaseMatch == null && method.getName().equalsIgnoreCase(setterName)) ignoreCaseMatch = method;
+        }
+        return ignoreCaseMatch;
+    }
+
+    private static Field findField(Class<?> clazz, String columnName) {
+        Field ignoreCaseMatch = null;
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(columnName);
+                if (isWritable(field)) return field;
+            } catch (NoSuchFieldException ignore) {
+                // 부모 클래스에서 계속 찾기
+            }
+
+            if (ignoreCaseMatch == null) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (isWritable(field) && field.getName().equalsIgnoreCase(columnName)) {
+                        ignoreCaseMatch = field;
+                        break;
+                    }
+                }
+            }
+        }
+        return ignoreCaseMatch;
+    }
+
+    private static boolean isWritable(Field field) {
+        return !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers());
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Supplier<T> instantiator(MethodHandles.Lookup lookup, Class<T> clazz) throws ReflectiveOperationException {
+        Constructor<T> constructor = clazz.getDeclaredConstructor();
+        MethodHandle handle = lookup.unreflectConstructor(constructor);
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    handle,
+                    MethodType.methodType(clazz)
+            );
+            return (Supplier<T>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            // 람다를 만들 수 없는 환경(다른 모듈/클래스로더)에서는 MethodHandle 로 직접 호출
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return (T) generic.invokeExact();
+                } catch (Throwable t) {
+                    throw new RuntimeException(t);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setterLambda(MethodHandles.Lookup lookup, Class<?> clazz, Method setter) throws IllegalAccessException {
+        MethodHandle handle = lookup.unreflect(setter);
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, clazz, ValueConverters.wrap(setter.getParameterTypes()[0]))
+            );
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            return invoker(handle.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+        }
+    }
+
+    static BiConsumer<Object, Object> fieldSetter(Field field) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+        MethodHandle handle = lookup.unreflectSetter(field);
+        return invoker(handle.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+    }
+
+    private static BiConsumer<Object, Object> invoker(MethodHandle handle) {
+        return (obj, value) -> {
+            try {
+                handle.invokeExact(obj, value);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.back;
+
+/*
+    파라미터 자리(?)만 남긴 채 고정한 SQL 템플릿
+    - SQL 문자열과 ? 개수는 compile() 때 한 번만 계산한다.
+    - 자리(?)마다 고른 파라미터 바인더를 템플릿이 들고 있어, 실행 때 SQL 로 바인더 자리를 찾지 않는다.
+    - 여러 스레드에서 공유해도 된다. (bind 할 때마다 SQL 문자열과 파라미터만 가진 가벼운 Sql 을 만든다)
+    - statement 캐시 / 결과 캐시 / 통계 모두 같은 SQL 문자열 키를 쓴다.
+
+    CompiledSql findTitle = simpleDb.genSql().append("SELECT title FROM article WHERE id = ?").compile();
+    String title = findTitle.bind(1).selectString();
+ */
+public final class CompiledSql {
+    private final SimpleDb simpleDb;
+    private final String sql;
+    private final int paramCount;
+    // 자리별 바인더 (첫 bind 실행 때 채워지고 값 타입이 바뀌면 다시 고른다)
+    private final ParamBinders.Slot[] slots;
+
+    CompiledSql(SimpleDb simpleDb, String sql) {
+        this.simpleDb = simpleDb;
+        this.sql = sql;
+        this.paramCount = countPlaceholders(sql);
+        this.slots = new ParamBinders.Slot[paramCount];
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int getParamCount() {
+        return paramCount;
+    }
+
+    // 새 파라미터로 실행할 Sql (SQL 문자열은 다시 만들지 않는다)
+    public Sql bind(Object... params) {
+        if (params.length != paramCount) {
+            throw new IllegalArgumentException("파라미터 개수(%d)가 ? 개수(%d)와 다릅니다: %s".formatted(params.length, paramCount, sql));
+        }
+        return new Sql(simpleDb, sql, params, slots);
+    }
+
+    // 문자열 리터럴('...', "...", `...`) 밖의 ? 개수
+    private static int countPlaceholders(String sql) {
+        int count = 0;
+        char quote = 0;
+
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') i++;
+                else if (c == quote) quote = 0;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
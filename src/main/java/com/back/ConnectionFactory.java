@@ -0,0 +1,10 @@
+package com.back;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// 물리 커넥션 생성 방법 (풀이 커넥션을 새로 만들어야 할 때 호출)
+@FunctionalInterface
+public interface ConnectionFactory {
+    Connection create() throws SQLException;
+}
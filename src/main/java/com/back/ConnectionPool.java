@@ -0,0 +1,206 @@
+package com.back;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    고정 최소/최대 크기를 가진 커넥션 풀
+    - 생성 시 minSize 만큼 미리 연결해 둔다.
+    - borrow() 는 최대 borrowTimeoutMs 동안 빈 커넥션을 기다린다.
+    - idleTimeoutMs 이상 놀고 있는 커넥션은 minSize 까지 정리한다.
+    - 커넥션마다 statementCacheSize 크기의 PreparedStatement 캐시를 가진다.
+ */
+public class ConnectionPool {
+    // 이 시간 이상 놀았던 커넥션은 빌려주기 전에 살아있는지 확인
+    private static final long VALIDATION_INTERVAL_MS = 30_000;
+
+    private final ConnectionFactory connectionFactory;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final int statementCacheSize;
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+
+    // 빌려간 커넥션 수 제한 (maxSize 개)
+    private final Semaphore permits;
+    // 쉬고 있는 커넥션 (앞쪽이 가장 최근에 반납된 것)
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory connectionFactory, int minSize, int maxSize,
+                          long borrowTimeoutMs, long idleTimeoutMs, long evictionIntervalMs,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("잘못된 풀 크기: min=%d, max=%d".formatted(minSize, maxSize));
+        }
+
+        this.connectionFactory = connectionFactory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        // 최소 개수만큼 미리 연결
+        try {
+            fillToMinimum();
+        } catch (SQLException e) {
+            shutdown();
+            throw new RuntimeException(e);
+        }
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "simple-db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, evictionIntervalMs, evictionIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public PooledConnection borrow() throws SQLException {
+        return borrow(borrowTimeoutMs);
+    }
+
+    // 기다리지 않고 빌린다. 빈 자리가 없으면 바로 SQLTimeoutException (replica 고르기 등)
+    public PooledConnection tryBorrow() throws SQLException {
+        return borrow(0);
+    }
+
+    private PooledConnection borrow(long timeoutMs) throws SQLException {
+        if (closed) throw new SQLException("커넥션 풀이 이미 종료되었습니다.");
+
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("%dms 안에 커넥션을 얻지 못했습니다. (max=%d)".formatted(timeoutMs, maxSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("커넥션 대기 중 인터럽트되었습니다.", e);
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (isUsable(pc)) {
+                    pc.touch();
+                    pc.markLeased();
+                    return pc;
+                }
+                discard(pc);
+            }
+            pc = create();
+            pc.markLeased();
+            return pc;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // 빌려간 커넥션 반납 (닫혔거나 상태를 되돌릴 수 없으면 폐기, 이미 반납된 커넥션이면 무시)
+    public void release(PooledConnection pc) {
+        if (!pc.markReturned()) return;
+
+        try {
+            if (closed || !pc.reset()) {
+                discard(pc);
+            } else {
+                pc.touch();
+                idle.offerFirst(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 풀 전체 종료 (쉬고 있는 커넥션은 바로 닫고, 빌려간 커넥션은 반납될 때 닫힌다)
+    public void shutdown() {
+        closed = true;
+        if (evictor != null) evictor.shutdownNow();
+
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            discard(pc);
+        }
+    }
+
+    public int getTotalCount() {
+        return totalCount.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    // 지금까지 실제로 DB 에 연결한 횟수
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    private boolean isUsable(PooledConnection pc) throws SQLException {
+        if (pc.isClosed()) return false;
+        if (System.currentTimeMillis() - pc.getLastUsedAt() < VALIDATION_INTERVAL_MS) return true;
+
+        try {
+            return pc.getConnection().isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        PooledConnection pc = new PooledConnection(connectionFactory.create(), statementCacheSize, statementCacheStats);
+        totalCount.incrementAndGet();
+        createdCount.incrementAndGet();
+        return pc;
+    }
+
+    private void discard(PooledConnection pc) {
+        totalCount.decrementAndGet();
+        pc.closeQuietly();
+    }
+
+    private void fillToMinimum() throws SQLException {
+        while (!closed && totalCount.get() < minSize) {
+            idle.offerLast(create());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+
+        // 뒤쪽이 가장 오래 쉰 커넥션
+        while (totalCount.get() > minSize) {
+            PooledConnection pc = idle.pollLast();
+            if (pc == null) break;
+
+            if (now - pc.getLastUsedAt() < idleTimeoutMs) {
+                idle.offerLast(pc);
+                break;
+            }
+            discard(pc);
+        }
+
+        try {
+            fillToMinimum();
+        } catch (SQLException ignore) {
+            // DB 가 잠시 내려가 있으면 다음 주기에 다시 시도
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.back;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/*
+    record / 불변 DTO 를 생성자 한 번으로 만드는 매퍼
+    - record 는 canonical 생성자, 일반 클래스는 파라미터가 가장 많은 생성자를 쓴다.
+      (일반 클래스는 -parameters 로 컴파일되어 있어야 파라미터 이름을 알 수 있다)
+    - 생성자 파라미터 → 컬럼 위치 연결은 컴파일할 때 한 번만 한다.
+ */
+final class ConstructorRowMapper<T> implements RowMapper<T> {
+    private final MethodHandle constructor;
+    // 생성자 파라미터 순서대로 읽을 컬럼 번호 (0 이면 해당 컬럼 없음)
+    private final int[] columnIndexes;
+    private final Function<Object, Object>[] converters;
+    private final Object[] defaultValues;
+
+    private ConstructorRowMapper(MethodHandle constructor, int[] columnIndexes,
+                                 Function<Object, Object>[] converters, Object[] defaultValues) {
+        this.constructor = constructor;
+        this.columnIndexes = columnIndexes;
+        this.converters = converters;
+        this.defaultValues = defaultValues;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T map(ResultSet rs) throws SQLException {
+        Object[] args = new Object[columnIndexes.length];
+
+        for (int i = 0; i < args.length; i++) {
+            Object value = columnIndexes[i] == 0 ? null : rs.getObject(columnIndexes[i]);
+            args[i] = value == null ? defaultValues[i] : converters[i].apply(value);
+        }
+
+        try {
+            return (T) constructor.invokeExact(args);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    static boolean supports(Class<?> clazz) {
+        if (clazz.isRecord()) return true;
+
+        // 기본 생성자가 있으면 setter 방식(BeanRowMapper)을 쓴다
+        return Arrays.stream(clazz.getDeclaredConstructors()).noneMatch(c -> c.getParameterCount() == 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> ConstructorRowMapper<T> compile(Class<T> clazz, String[] columnLabels) {
+        try {
+            Constructor<T> ctor = findConstructor(clazz);
+            String[] names = parameterNames(clazz, ctor);
+            Class<?>[] types = ctor.getParameterTypes();
+
+            int[] columnIndexes = new int[names.length];
+            Function<Object, Object>[] converters = new Function[names.length];
+            Object[] defaultValues = new Object[names.length];
+
+            for (int i = 0; i < names.length; i++) {
+                columnIndexes[i] = columnIndexOf(columnLabels, names[i]);
+                converters[i] = ValueConverters.to(types[i]);
+                defaultValues[i] = ValueConverters.defaultValue(types[i]);
+            }
+
+            MethodHandle handle = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup())
+                    .unreflectConstructor(ctor)
+                    .asSpreader(Object[].class, names.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+
+            return new ConstructorRowMapper<>(handle, columnIndexes, converters, defaultValues);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("%s 매퍼를 만들 수 없습니다.".formatted(clazz.getName()), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> findConstructor(Class<T> clazz) throws NoSuchMethodException {
+        if (clazz.isRecord()) {
+            Class<?>[] types = Arrays.stream(clazz.getRecordComponents())
+                    .map(RecordComponent::getType)
+                    .toArray(Class<?>[]::new);
+            return clazz.getDeclaredConstructor(types);
+        }
+
+        return (Constructor<T>) Arrays.stream(clazz.getDeclaredConstructors())
+                .max((a, b) -> Integer.compare(a.getParameterCount(), b.getParameterCount()))
+                .orElseThrow(() -> new NoSuchMethodException(clazz.getName() + " 에 생성자가 없습니다."));
+    }
+
+    private static String[] parameterNames(Class<?> clazz, Constructor<?> ctor) {
+        if (clazz.isRecord()) {
+            return Arrays.stream(clazz.getRecordComponents())
+                    .map(RecordComponent::getName)
+                    .toArray(String[]::new);
+        }
+
+        Parameter[] parameters = ctor.getParameters();
+        if (parameters.length > 0 && !parameters[0].isNamePresent()) {
+            throw new IllegalStateException("%s 생성자의 파라미터 이름을 알 수 없습니다. (-parameters 옵션으로 컴파일 필요)"
+                    .formatted(clazz.getName()));
+        }
+        return Arrays.stream(parameters).map(Parameter::getName).toArray(String[]::new);
+    }
+
+    // 이름이 같은 컬럼 (없으면 대소문자 무시) 의 번호, 없으면 0
+    private static int columnIndexOf(String[] columnLabels, String name) {
+        for (int i = 0; i < columnLabels.length; i++) {
+            if (columnLabels[i].equals(name)) return i + 1;
+        }
+        for (int i = 0; i < columnLabels.length; i++) {
+            if (columnLabels[i].equalsIgnoreCase(name)) return i + 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.back;
+
+import java.util.List;
+
+/*
+    DB 종류별로 다른 부분
+    - JDBC 드라이버 / URL
+    - 테이블 비우기 (AUTO_INCREMENT 초기화 포함)
+    - 스트리밍 조회 fetchSize
+    - 다중 행 INSERT 의 생성키 반환 방식
+    - boolean 컬럼 타입
+
+    simpleDb.setDialect(Dialect.H2);
+ */
+public interface Dialect {
+    Dialect MYSQL = new MysqlDialect();
+    // 내장 H2 (MySQL 호환 모드)
+    Dialect H2 = new H2Dialect();
+    Dialect SQLITE = new SqliteDialect();
+
+    String getName();
+
+    String getDriverClassName();
+
+    String jdbcUrl(String host, String dbName, ConnectionProperties properties);
+
+    // 테이블을 비우고 AUTO_INCREMENT 를 1 로 되돌리는 SQL (순서대로 실행)
+    List<String> truncateSql(String table);
+
+    // stream() 이 한 번에 받아올 행 수 힌트
+    int getStreamingFetchSize();
+
+    // 다중 행 INSERT 에서 getGeneratedKeys() 가 모든 행의 키를 주는지 (false 면 마지막 키만 줌)
+    default boolean returnsAllGeneratedKeys() {
+        return true;
+    }
+
+    // CREATE TABLE 에 쓸 boolean 컬럼 타입
+    String getBooleanType();
+
+    default void loadDriver() {
+        // 굳이 없어도 자동으로 드라이버를 로드하지만 호환성, 명시성 때문에 넣어주는게 좋다.
+        try {
+            Class.forName(getDriverClassName());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(getName() + " Driver not found", e);
+        }
+    }
+}
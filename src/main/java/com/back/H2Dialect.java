@@ -0,0 +1,46 @@
+package com.back;
+
+import java.util.List;
+
+/*
+    H2 (MySQL 호환 모드)
+    - host 가 "mem" 이면 프로세스 안 메모리 DB (마지막 커넥션이 닫혀도 유지)
+    - 그 외에는 host 의 H2 서버 (tcp)
+    - ConnectionProperties 는 MySQL 전용이라 쓰지 않는다.
+ */
+public class H2Dialect implements Dialect {
+    private static final String OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+
+    @Override
+    public String getName() {
+        return "H2";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "org.h2.Driver";
+    }
+
+    @Override
+    public String jdbcUrl(String host, String dbName, ConnectionProperties properties) {
+        if (host == null || host.equals("mem")) {
+            return "jdbc:h2:mem:" + dbName + OPTIONS + ";DB_CLOSE_DELAY=-1";
+        }
+        return "jdbc:h2:tcp://" + host + "/" + dbName + OPTIONS;
+    }
+
+    @Override
+    public List<String> truncateSql(String table) {
+        return List.of("TRUNCATE TABLE " + table + " RESTART IDENTITY");
+    }
+
+    @Override
+    public int getStreamingFetchSize() {
+        return 100;
+    }
+
+    @Override
+    public String getBooleanType() {
+        return "BOOLEAN";
+    }
+}
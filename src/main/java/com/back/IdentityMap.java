@@ -0,0 +1,75 @@
+package com.back;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+    1차 캐시 (identity map)
+    - 한 스레드의 작업 범위(트랜잭션 또는 SimpleDb.withIdentityMap) 안에서
+      같은 (클래스, 테이블, id) 는 DB 를 다시 읽지 않고 이미 매핑한 객체를 그대로 돌려준다.
+    - 한 스레드에서만 쓰므로 동기화하지 않는다.
+    - 쓰기 쿼리가 실행되면 그 테이블의 객체는 버린다.
+ */
+public class IdentityMap {
+    private record Key(Class<?> clazz, Object id) {
+    }
+
+    // 테이블 → (클래스, id) → 객체
+    private final Map<String, Map<Key, Object>> entitiesByTable = new HashMap<>();
+    // 트랜잭션이 시작되면서 만든 것인지 (트랜잭션이 끝나면 같이 버림)
+    private final boolean transactionScoped;
+
+    IdentityMap(boolean transactionScoped) {
+        this.transactionScoped = transactionScoped;
+    }
+
+    boolean isTransactionScoped() {
+        return transactionScoped;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(String table, Class<T> clazz, Object id) {
+        Map<Key, Object> entities = entitiesByTable.get(table.toLowerCase(Locale.ROOT));
+        if (entities == null) return null;
+
+        return (T) entities.get(new Key(clazz, normalizeId(id)));
+    }
+
+    void put(String table, Class<?> clazz, Object id, Object entity) {
+        entitiesByTable.computeIfAbsent(table.toLowerCase(Locale.ROOT), k -> new HashMap<>())
+                .put(new Key(clazz, normalizeId(id)), entity);
+    }
+
+    // 쓰기 쿼리가 바꾼 테이블의 객체를 버린다 (테이블을 알 수 없으면 전부)
+    void evict(String[] tables) {
+        if (tables.length == 0) {
+            clear();
+            return;
+        }
+
+        for (String table : tables) {
+            entitiesByTable.remove(table);
+        }
+    }
+
+    void clear() {
+        entitiesByTable.clear();
+    }
+
+    public int size() {
+        return entitiesByTable.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // 1 (Integer) 과 1L (Long) 처럼 같은 정수 id 는 같은 키로 본다
+    static Object normalizeId(Object id) {
+        if (id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        if (id instanceof BigInteger b && b.bitLength() < 64) {
+            return b.longValue();
+        }
+        return id;
+    }
+}
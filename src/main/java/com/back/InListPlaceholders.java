@@ -0,0 +1,49 @@
+package com.back;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/*
+    appendIn 용 "?, ?, ?" 문자열 캐시
+    - 1024 개까지는 2의 거듭제곱 단위, 그 위로는 1024 단위로 올린다.
+    - 자주 쓰는 길이의 문자열은 한 번만 만든다.
+ */
+final class InListPlaceholders {
+    private static final int MAX_POWER_OF_TWO_BUCKET = 1024;
+    private static final int MAX_CACHED = 8 * MAX_POWER_OF_TWO_BUCKET;
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?\\s*\\)");
+
+    private static final AtomicReferenceArray<String> cache = new AtomicReferenceArray<>(MAX_CACHED + 1);
+
+    private InListPlaceholders() {
+    }
+
+    // "IN (?)" 모양인지 (값을 반복해서 채워도 결과가 같은 자리인지)
+    static boolean isInList(String sqlPart) {
+        return IN_LIST.matcher(sqlPart).find();
+    }
+
+    static int bucket(int count) {
+        if (count <= MAX_POWER_OF_TWO_BUCKET) {
+            return count <= 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+        }
+        return (count + MAX_POWER_OF_TWO_BUCKET - 1) / MAX_POWER_OF_TWO_BUCKET * MAX_POWER_OF_TWO_BUCKET;
+    }
+
+    static String of(int count) {
+        if (count > MAX_CACHED) return build(count);
+
+        String placeholders = cache.get(count);
+        if (placeholders == null) {
+            placeholders = build(count);
+            cache.set(count, placeholders);
+        }
+        return placeholders;
+    }
+
+    private static String build(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
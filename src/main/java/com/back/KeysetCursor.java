@@ -0,0 +1,30 @@
+package com.back;
+
+import java.util.Arrays;
+
+// 키셋 페이지 이어보기 위치 (이전 페이지 마지막 행의 정렬 키 값)
+public record KeysetCursor(Object[] keys) {
+    public KeysetCursor {
+        keys = keys.clone();
+    }
+
+    @Override
+    public Object[] keys() {
+        return keys.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof KeysetCursor other && Arrays.equals(keys, other.keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(keys);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor" + Arrays.toString(keys);
+    }
+}
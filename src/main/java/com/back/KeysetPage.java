@@ -0,0 +1,10 @@
+package com.back;
+
+import java.util.List;
+
+// 키셋 페이지 1개 (next 가 null 이면 마지막 페이지)
+public record KeysetPage<T>(List<T> items, KeysetCursor next) {
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.back;
+
+import java.util.List;
+
+public class MysqlDialect implements Dialect {
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "com.mysql.cj.jdbc.Driver";
+    }
+
+    // 포트가 없으면 3306
+    @Override
+    public String jdbcUrl(String host, String dbName, ConnectionProperties properties) {
+        return String.format(
+                "jdbc:mysql://%s/%s?%s",
+                host.contains(":") ? host : host + ":3306", dbName, properties.toQueryString()
+        );
+    }
+
+    @Override
+    public List<String> truncateSql(String table) {
+        return List.of("TRUNCATE " + table);
+    }
+
+    // 한 행씩 받아오기 (Connector/J 의 스트리밍 모드)
+    @Override
+    public int getStreamingFetchSize() {
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public String getBooleanType() {
+        return "BIT(1)";
+    }
+}
@@ -0,0 +1,10 @@
+package com.back;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// 파라미터 값 1개를 PreparedStatement 의 index 자리에 바인딩 (값은 null 이 아님)
+@FunctionalInterface
+public interface ParamBinder<T> {
+    void bind(PreparedStatement ps, int index, T value) throws SQLException;
+}
@@ -0,0 +1,141 @@
+package com.back;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Java 타입별 파라미터 바인더 모음 (setObject 대신 setLong, setString, setBoolean ... 를 바로 호출)
+    - 타입 → 바인더는 한 번 찾으면 캐시한다. (정확한 타입 → 부모 클래스 → 인터페이스 순, 없으면 setObject)
+    - SQL 모양별로 자리(?)마다 마지막에 쓴 바인더를 기억해 두고, 값 타입이 같으면 찾지 않고 바로 쓴다.
+      (CompiledSql 은 자기 자리 배열을 들고 있어 SQL 로 찾는 과정도 없다)
+    - java.time 값은 시간대 변환이 없도록 setObject 로 보낸다.
+    - enum 은 name() 문자열로 보낸다.
+
+    simpleDb.getParamBinders().register(Money.class, (ps, i, v) -> ps.setBigDecimal(i, v.amount()));
+ */
+public class ParamBinders {
+    private static final ParamBinder<Object> SET_OBJECT = PreparedStatement::setObject;
+
+    // 자리마다 마지막으로 바인딩한 값의 타입과 바인더 (generation 이 다르면 register 전에 고른 것)
+    record Slot(Class<?> type, ParamBinder<Object> binder, int generation) {
+    }
+
+    private final Map<Class<?>, ParamBinder<Object>> registered = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ParamBinder<Object>> resolved = new ConcurrentHashMap<>();
+    private final Map<String, Slot[]> slotsBySql = new ConcurrentHashMap<>();
+    // register 할 때마다 올라간다 (CompiledSql 이 들고 있는 자리도 다시 고르게)
+    private volatile int generation;
+
+    // 자리별 바인더를 기억할 SQL 모양 수 (넘으면 그 뒤 모양은 타입 캐시만 사용)
+    @Getter
+    @Setter
+    private volatile int maxShapes = 1_000;
+
+    public ParamBinders() {
+        register(Long.class, (ps, i, v) -> ps.setLong(i, v));
+        register(Integer.class, (ps, i, v) -> ps.setInt(i, v));
+        register(Short.class, (ps, i, v) -> ps.setShort(i, v));
+        register(Byte.class, (ps, i, v) -> ps.setByte(i, v));
+        register(Double.class, (ps, i, v) -> ps.setDouble(i, v));
+        register(Float.class, (ps, i, v) -> ps.setFloat(i, v));
+        register(BigDecimal.class, PreparedStatement::setBigDecimal);
+        register(String.class, PreparedStatement::setString);
+        register(Boolean.class, (ps, i, v) -> ps.setBoolean(i, v));
+        // java.time 은 setObject 그대로 (setTimestamp 등은 JVM 시간대 → serverTimezone 변환이 끼어들어 값이 밀린다)
+        register(LocalDateTime.class, PreparedStatement::setObject);
+        register(LocalDate.class, PreparedStatement::setObject);
+        register(LocalTime.class, PreparedStatement::setObject);
+        register(Timestamp.class, PreparedStatement::setTimestamp);
+        register(java.sql.Date.class, PreparedStatement::setDate);
+        register(Time.class, PreparedStatement::setTime);
+        register(Enum.class, (ps, i, v) -> ps.setString(i, v.name()));
+        register(byte[].class, PreparedStatement::setBytes);
+        register(InputStream.class, PreparedStatement::setBinaryStream);
+        register(Reader.class, PreparedStatement::setCharacterStream);
+    }
+
+    // type 과 그 하위 타입 값에 쓸 바인더 등록 (기본 바인더도 덮어쓸 수 있다)
+    @SuppressWarnings("unchecked")
+    public <T> ParamBinders register(Class<T> type, ParamBinder<? super T> binder) {
+        registered.put(type, (ParamBinder<Object>) binder);
+        // 이미 골라 둔 바인더가 바뀔 수 있으므로 캐시를 비운다
+        resolved.clear();
+        slotsBySql.clear();
+        generation++;
+        return this;
+    }
+
+    // 값 타입에 맞는 바인더 (등록된 게 없으면 setObject)
+    public ParamBinder<Object> binderFor(Class<?> type) {
+        return resolved.computeIfAbsent(type, this::resolve);
+    }
+
+    // params 를 1번 자리부터 차례로 바인딩
+    void bind(PreparedStatement ps, String sql, List<Object> params) throws SQLException {
+        bind(ps, slots(sql, params.size()), params);
+    }
+
+    // 미리 만들어 둔 자리 배열로 바인딩 (slots 가 null 이면 타입 캐시만 사용)
+    void bind(PreparedStatement ps, Slot[] slots, List<Object> params) throws SQLException {
+        int size = params.size();
+        if (slots != null && slots.length != size) slots = null;
+        int generation = this.generation;
+
+        for (int i = 0; i < size; i++) {
+            Object value = params.get(i);
+            if (value == null) {
+                ps.setObject(i + 1, null);
+                continue;
+            }
+
+            Class<?> type = value.getClass();
+            Slot slot = slots == null ? null : slots[i];
+            ParamBinder<Object> binder;
+            if (slot != null && slot.type == type && slot.generation == generation) {
+                binder = slot.binder;
+            } else {
+                binder = binderFor(type);
+                if (slots != null) slots[i] = new Slot(type, binder, generation);
+            }
+            binder.bind(ps, i + 1, value);
+        }
+    }
+
+    private Slot[] slots(String sql, int size) {
+        Slot[] slots = slotsBySql.get(sql);
+        if (slots == null) {
+            if (slotsBySql.size() >= maxShapes) return null;
+            slots = slotsBySql.computeIfAbsent(sql, k -> new Slot[size]);
+        }
+        // 같은 SQL 인데 파라미터 수가 다르면(잘못된 호출) 자리 캐시를 쓰지 않는다
+        return slots.length == size ? slots : null;
+    }
+
+    private ParamBinder<Object> resolve(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            ParamBinder<Object> binder = registered.get(c);
+            if (binder != null) return binder;
+        }
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Class<?> itf : c.getInterfaces()) {
+                ParamBinder<Object> binder = registered.get(itf);
+                if (binder != null) return binder;
+            }
+        }
+        return SET_OBJECT;
+    }
+}
@@ -0,0 +1,205 @@
+package com.back;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+    정수 기본 키 범위를 조각(chunk)으로 나눠 여러 커넥션에서 동시에 읽는 전체 스캔
+    - MIN(key) ~ MAX(key) 를 chunkSize 단위로 나누고, 조각마다 비동기 실행기(가상 스레드 + 자기 커넥션)로 조회
+    - 동시에 읽는 조각은 parallelism 개까지 (메모리에도 그만큼만 올라간다)
+    - ordered 면 키 순서대로, 아니면 먼저 끝난 조각부터 내보낸다.
+    - 조각마다 다른 커넥션/시점에서 읽으므로 테이블 전체의 한 시점 스냅숏은 아니다.
+    - 스트림을 닫으면 아직 시작하지 않은 조각은 실행하지 않고, 읽고 있던 조각은 다음 행에서 멈춘다.
+
+    try (Stream<Article> articles = simpleDb.scanPartitioned(Article.class, "article", "id")
+            .where("isBlind = ?", false)
+            .parallelism(4)
+            .stream()) { ... }
+ */
+public class PartitionedScan<T> {
+    private final SimpleDb simpleDb;
+    private final String table;
+    private final String keyColumn;
+    // (조각 SQL, 계속 읽을지) → 조각 결과
+    private final BiFunction<Sql, BooleanSupplier, List<T>> terminal;
+
+    private String where;
+    private Object[] whereParams = new Object[0];
+    private long chunkSize = 10_000;
+    private int parallelism = 4;
+    private boolean ordered = true;
+
+    PartitionedScan(SimpleDb simpleDb, String table, String keyColumn, BiFunction<Sql, BooleanSupplier, List<T>> terminal) {
+        this.simpleDb = simpleDb;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.terminal = terminal;
+    }
+
+    // 추가 조건 (ex. where("isBlind = ?", false))
+    public PartitionedScan<T> where(String condition, Object... params) {
+        this.where = condition;
+        this.whereParams = params;
+        return this;
+    }
+
+    public PartitionedScan<T> chunkSize(long chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다: " + chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    // 동시에 읽는 조각 수 (비동기 실행기의 asyncMaxConcurrency 도 함께 상한이 된다)
+    public PartitionedScan<T> parallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism 은 1 이상이어야 합니다: " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public PartitionedScan<T> ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    // 반드시 닫아야 한다. (닫으면 아직 안 끝난 조각은 취소)
+    public Stream<T> stream() {
+        ChunkIterator chunks = new ChunkIterator();
+        Iterator<T> rows = new Iterator<>() {
+            private Iterator<T> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (!chunks.hasNext()) return false;
+                    current = chunks.next().iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return current.next();
+            }
+        };
+
+        int characteristics = Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, characteristics), false)
+                .onClose(chunks::cancel);
+    }
+
+    public void forEach(Consumer<? super T> action) {
+        try (Stream<T> rows = stream()) {
+            rows.forEach(action);
+        }
+    }
+
+    private Sql chunkSql(long from, long to) {
+        Sql sql = simpleDb.genSql()
+                .append("SELECT * FROM " + table)
+                .append("WHERE " + keyColumn + " BETWEEN ? AND ?", from, to);
+        if (where != null) sql.append("AND (" + where + ")", whereParams);
+        return sql.append("ORDER BY " + keyColumn).noCache();
+    }
+
+    // 조각 결과를 차례로 내주는 Iterator (parallelism 개까지 미리 실행)
+    private class ChunkIterator implements Iterator<List<T>> {
+        private long nextFrom;
+        private long maxKey;
+        private boolean started;
+        private boolean exhausted;
+        // 닫힌 뒤에는 조각 작업이 행마다 확인하고 멈춘다 (다른 스레드에서 읽음)
+        private volatile boolean cancelled;
+
+        // ordered: 제출한 순서, unordered: 끝난 순서
+        private final Deque<CompletableFuture<List<T>>> inFlight = new ArrayDeque<>();
+        private final BlockingQueue<CompletableFuture<List<T>>> completed = new LinkedBlockingQueue<>();
+
+        @Override
+        public boolean hasNext() {
+            start();
+            return !inFlight.isEmpty();
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+
+            CompletableFuture<List<T>> future;
+            if (ordered) {
+                future = inFlight.pollFirst();
+            } else {
+                try {
+                    future = completed.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("스캔 대기 중 인터럽트되었습니다.", e);
+                }
+                inFlight.remove(future);
+            }
+
+            List<T> rows;
+            try {
+                rows = future.join();
+            } catch (CompletionException e) {
+                cancel();
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+
+            submitUpTo();
+            return rows;
+        }
+
+        void cancel() {
+            cancelled = true;
+            exhausted = true;
+            inFlight.forEach(f -> f.cancel(true));
+            inFlight.clear();
+        }
+
+        private void start() {
+            if (started) return;
+            started = true;
+
+            Sql sql = simpleDb.genSql()
+                    .append("SELECT MIN(" + keyColumn + ") AS min_key, MAX(" + keyColumn + ") AS max_key FROM " + table);
+            if (where != null) sql.append("WHERE (" + where + ")", whereParams);
+            Map<String, Object> range = sql.noCache().selectRow();
+
+            // 별칭은 소문자로 (컬럼명을 소문자로 돌려주는 DB 에서도 같은 이름)
+            if (range == null || range.get("min_key") == null) {
+                exhausted = true;
+                return;
+            }
+
+            nextFrom = ((Number) range.get("min_key")).longValue();
+            maxKey = ((Number) range.get("max_key")).longValue();
+            submitUpTo();
+        }
+
+        private List<T> readChunk(long from, long to) {
+            if (cancelled) return List.of();
+
+            return terminal.apply(chunkSql(from, to), () -> !cancelled);
+        }
+
+        private void submitUpTo() {
+            while (inFlight.size() < parallelism && !exhausted) {
+                long from = nextFrom;
+                long to = maxKey - from < chunkSize ? maxKey : from + chunkSize - 1;
+                if (to == maxKey) exhausted = true;
+                else nextFrom = to + 1;
+
+                CompletableFuture<List<T>> future = simpleDb.supplyAsync(() -> readChunk(from, to));
+                inFlight.addLast(future);
+                if (!ordered) future.whenComplete((rows, e) -> completed.add(future));
+            }
+        }
+    }
+}
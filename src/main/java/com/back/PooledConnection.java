@@ -0,0 +1,77 @@
+package com.back;
+
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 풀이 관리하는 물리 커넥션 1개와 그 부가 정보
+public class PooledConnection {
+    @Getter
+    private final Connection connection;
+    @Getter
+    private final StatementCache statementCache;
+    @Getter
+    private volatile long lastUsedAt = System.currentTimeMillis();
+    // 진행 중인 트랜잭션에서 쓰기가 일어난 테이블 (커밋 때 결과 캐시 무효화)
+    final Set<String> touchedTables = new HashSet<>();
+    // 빌려간 상태인지 (같은 커넥션을 두 번 반납해도 한 번만 처리)
+    private final AtomicBoolean leased = new AtomicBoolean();
+
+    PooledConnection(Connection connection, int statementCacheSize, StatementCacheStats statementCacheStats) {
+        this.connection = connection;
+        this.statementCache = new StatementCache(connection, statementCacheSize, statementCacheStats);
+    }
+
+    void touch() {
+        lastUsedAt = System.currentTimeMillis();
+    }
+
+    void markLeased() {
+        leased.set(true);
+    }
+
+    // 빌려간 상태였으면 반납 상태로 바꾸고 true, 이미 반납됐으면 false
+    boolean markReturned() {
+        return leased.compareAndSet(true, false);
+    }
+
+    public boolean isClosed() {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /*
+        풀에 반납하기 전에 커넥션 상태를 원래대로 돌려놓는다.
+        끝나지 않은 트랜잭션은 롤백하고 읽기 전용 설정을 푼다. 되돌릴 수 없으면 false (→ 폐기)
+     */
+    boolean reset() {
+        touchedTables.clear();
+        try {
+            if (connection.isClosed()) return false;
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (connection.isReadOnly()) connection.setReadOnly(false);
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closeQuietly() {
+        statementCache.closeAll();
+        try {
+            connection.close();
+        } catch (SQLException ignore) {
+            // 이미 끊긴 커넥션이면 무시
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.back;
+
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    읽기 쿼리 결과 캐시 (SimpleDb.resultCacheEnabled 로 켠다)
+    - 키: SQL + 바인딩 값 + 결과 종류(selectRows, selectLong, ...)
+    - maxSize 개 LRU + ttlMs 가 지나면 만료
+    - 테이블마다 버전을 두고, 쓰기가 일어나면 그 테이블 버전을 올린다.
+      캐시 항목은 읽기 시작할 때의 버전을 들고 있다가, 버전이 바뀌었으면 버린다.
+      (읽는 도중에 쓰기가 끼어들어도 오래된 결과가 남지 않음)
+ */
+public class QueryResultCache {
+    // resultKindArg: 매핑 클래스, 기본값 등 결과 종류에 따라 달라지는 값
+    public record Key(String sql, List<Object> params, String resultKind, Object resultKindArg) {
+    }
+
+    // 읽기 시작 시점의 테이블 버전
+    record Stamp(String[] tables, long[] versions, long globalVersion) {
+    }
+
+    private record Entry(Object value, Stamp stamp, long expiresAt) {
+    }
+
+    private static final Object NULL = new Object();
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    // 어떤 테이블인지 모르는 쓰기가 일어나면 전체 무효화
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QueryResultCache(int maxSize, long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > QueryResultCache.this.maxSize;
+            }
+        };
+    }
+
+    // 결과를 캐시해도 되는 쿼리면 현재 버전, 아니면 null
+    Stamp stamp(String sql) {
+        String[] tables = SqlTables.of(sql);
+        if (tables.length == 0 || !SqlTables.isCacheableRead(sql)) return null;
+
+        long global = globalVersion.get();
+        long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = version(tables[i]).get();
+        }
+        return new Stamp(tables, versions, global);
+    }
+
+    // 캐시에 없으면 empty. null 결과도 캐시하므로 값은 unwrap() 으로 꺼낸다
+    Optional<Object> get(Key key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        if (System.currentTimeMillis() >= entry.expiresAt || !isCurrent(entry.stamp)) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(entry.value);
+    }
+
+    static Object unwrap(Object cached) {
+        return cached == NULL ? null : cached;
+    }
+
+    /*
+        캐시된 결과는 여러 호출자가 공유하므로 보관할 때와 꺼낼 때 모두 깊은 복사를 한다.
+        (호출자가 받은 목록/Map/Row 를 고쳐도 캐시나 다른 호출자에게 번지지 않음)
+        - 불변 값(String, 숫자, Boolean, enum, java.time ...)은 그대로
+        - Row, Map, List 는 새로 만들고 안의 값도 복사, 배열과 java.util.Date 는 clone
+        - record 는 구성 요소가 모두 불변 값일 때만 그대로 보관
+        - 빈 객체는 BeanCopier 로 새로 만들고 필드 값을 복사
+        - 그 외(기본 생성자가 없거나 final 필드가 있는 클래스, JDK 타입 등)는 복사할 방법이 없으므로 캐시하지 않는다. (UNCACHEABLE)
+     */
+    static final Object UNCACHEABLE = new Object();
+
+    static Object copyForCache(Object value) {
+        return deepCopy(value);
+    }
+
+    static Object copyForCaller(Object value) {
+        return deepCopy(value);
+    }
+
+    private static Object deepCopy(Object value) {
+        if (value == null || isImmutable(value)) return value;
+
+        if (value instanceof Row row) {
+            Row copied = row.copy(QueryResultCache::deepCopy);
+            return copied.containsValue(UNCACHEABLE) ? UNCACHEABLE : copied;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copied = new LinkedHashMap<>(map.size() * 2);
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                Object v = deepCopy(e.getValue());
+                if (v == UNCACHEABLE) return UNCACHEABLE;
+                copied.put(e.getKey(), v);
+            }
+            return copied;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copied = new ArrayList<>(list.size());
+            for (Object element : list) {
+                Object v = deepCopy(element);
+                if (v == UNCACHEABLE) return UNCACHEABLE;
+                copied.add(v);
+            }
+            return copied;
+        }
+        if (value instanceof long[] a) return a.clone();
+        if (value instanceof int[] a) return a.clone();
+        if (value instanceof double[] a) return a.clone();
+        if (value instanceof byte[] a) return a.clone();
+        if (value instanceof Date d) return d.clone();
+        if (value instanceof Record r) return hasImmutableComponents(r) ? r : UNCACHEABLE;
+
+        BeanCopier copier = BeanCopier.of(value.getClass());
+        return copier == null ? UNCACHEABLE : copier.copy(value, QueryResultCache::deepCopy, UNCACHEABLE);
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String
+                || value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float
+                || value instanceof BigDecimal || value instanceof BigInteger
+                || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum<?> || value instanceof UUID
+                || value.getClass().getPackageName().equals("java.time");
+    }
+
+    private static boolean hasImmutableComponents(Record record) {
+        try {
+            for (RecordComponent component : record.getClass().getRecordComponents()) {
+                Object v = component.getAccessor().invoke(record);
+                if (v != null && !isImmutable(v)) return false;
+            }
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // 접근할 수 없는 record 는 캐시하지 않는다
+            return false;
+        }
+    }
+
+    void put(Key key, Object value, Stamp stamp) {
+        if (value == UNCACHEABLE) return;
+        if (!isCurrent(stamp)) return; // 읽는 사이 쓰기가 있었음
+
+        Entry entry = new Entry(value == null ? NULL : value, stamp, System.currentTimeMillis() + ttlMs);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    // 쓰기 쿼리가 바꾼 테이블 무효화 (테이블을 알 수 없으면 전체)
+    public void invalidate(String writeSql) {
+        invalidateTables(SqlTables.of(writeSql));
+    }
+
+    public void invalidateTables(Collection<String> tables) {
+        invalidateTables(tables.toArray(String[]::new));
+    }
+
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+        invalidations.increment();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void invalidateTables(String[] tables) {
+        if (tables.length == 0) {
+            invalidateAll();
+            return;
+        }
+
+        for (String table : tables) {
+            version(table).incrementAndGet();
+        }
+        invalidations.increment();
+    }
+
+    private AtomicLong version(String table) {
+        return tableVersions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    private boolean isCurrent(Stamp stamp) {
+        if (stamp.globalVersion != globalVersion.get()) return false;
+
+        for (int i = 0; i < stamp.tables.length; i++) {
+            if (version(stamp.tables[i]).get() != stamp.versions[i]) return false;
+        }
+        return true;
+    }
+}
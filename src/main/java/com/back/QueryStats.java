@@ -0,0 +1,34 @@
+package com.back;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// SQL 모양(SQL 문자열) 1개의 실행 통계
+@Getter
+public class QueryStats {
+    private final String sql;
+    // 커넥션/statement 준비 + 파라미터 바인딩
+    private final LatencyHistogram prepare = new LatencyHistogram();
+    // executeQuery / executeUpdate
+    private final LatencyHistogram execute = new LatencyHistogram();
+    // ResultSet → 결과 객체 변환
+    private final LatencyHistogram mapping = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    QueryStats(String sql) {
+        this.sql = sql;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(sql, execute.getCount(), errors.sum(), rows.sum(),
+                prepare.snapshot(), execute.snapshot(), mapping.snapshot());
+    }
+
+    public record Snapshot(String sql, long calls, long errors, long rows,
+                           LatencyHistogram.Snapshot prepare,
+                           LatencyHistogram.Snapshot execute,
+                           LatencyHistogram.Snapshot mapping) {
+    }
+}
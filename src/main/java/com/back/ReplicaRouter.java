@@ -0,0 +1,150 @@
+package com.back;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+    읽기 전용 replica 들로 SELECT 를 나눠 보내는 라우터
+    - replica 마다 커넥션 풀을 하나씩 둔다. (replica 가 내려가 있어도 시작할 수 있도록 최소 크기 0)
+    - 건강한 replica 중에서 라운드 로빈으로 고른다.
+    - healthCheckIntervalMs 마다 각 replica 에 isValid() 를 보내 상태를 갱신한다.
+    - 커넥션을 못 얻은 replica 는 다음 헬스 체크까지 제외한다.
+ */
+public class ReplicaRouter {
+    // 빌려간 replica 커넥션 (다 쓰면 release())
+    record Lease(Replica replica, PooledConnection connection) {
+        void release() {
+            replica.pool.release(connection);
+        }
+    }
+
+    public static class Replica {
+        private final String host;
+        private final ConnectionPool pool;
+        private volatile boolean healthy = true;
+        // 이 replica 로 보낸 읽기 수 (헬스 체크는 세지 않음)
+        private final LongAdder borrowCount = new LongAdder();
+
+        private Replica(String host, ConnectionPool pool) {
+            this.host = host;
+            this.pool = pool;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public ConnectionPool getPool() {
+            return pool;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount.sum();
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    ReplicaRouter(List<String> hosts, Function<String, ConnectionPool> poolFactory, long healthCheckIntervalMs) {
+        for (String host : hosts) {
+            replicas.add(new Replica(host, poolFactory.apply(host)));
+        }
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "simple-db-replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+        건강한 replica 에서 커넥션을 빌린다. 쓸 수 있는 replica 가 없으면 null (→ primary 사용)
+        - 한 바퀴는 기다리지 않고(tryBorrow) 빈 자리가 있는 replica 를 찾는다.
+        - 모두 꽉 찼을 때만 처음 꽉 찼던 replica 에서 borrowTimeoutMs 까지 기다린다.
+     */
+    Lease borrow() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        Replica saturated = null;
+
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) continue;
+
+            try {
+                return lease(replica, replica.pool.tryBorrow());
+            } catch (SQLTimeoutException e) {
+                // 풀이 꽉 찬 것일 뿐이므로 다음 replica 로
+                if (saturated == null) saturated = replica;
+            } catch (SQLException e) {
+                replica.healthy = false;
+            }
+        }
+
+        if (saturated == null) return null;
+
+        try {
+            return lease(saturated, saturated.pool.borrow());
+        } catch (SQLTimeoutException e) {
+            return null;
+        } catch (SQLException e) {
+            saturated.healthy = false;
+            return null;
+        }
+    }
+
+    private static Lease lease(Replica replica, PooledConnection pc) {
+        replica.borrowCount.increment();
+        return new Lease(replica, pc);
+    }
+
+    public List<Replica> getReplicas() {
+        return List.copyOf(replicas);
+    }
+
+    public int getHealthyCount() {
+        return (int) replicas.stream().filter(Replica::isHealthy).count();
+    }
+
+    void shutdown() {
+        healthChecker.shutdownNow();
+        replicas.forEach(r -> r.pool.shutdown());
+    }
+
+    private void checkHealth() {
+        for (Replica replica : replicas) {
+            replica.healthy = ping(replica);
+        }
+    }
+
+    private static boolean ping(Replica replica) {
+        try {
+            // 헬스 체크가 꽉 찬 풀에서 기다리지 않도록 바로 빌린다
+            PooledConnection pc = replica.pool.tryBorrow();
+            try {
+                return pc.getConnection().isValid(1);
+            } finally {
+                replica.pool.release(pc);
+            }
+        } catch (SQLTimeoutException e) {
+            return true; // 바빠서 커넥션이 안 남았을 뿐
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.back;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/*
+    ResultSet 을 한 행씩 읽어 넘기는 Spliterator (스트리밍 조회용)
+    끝까지 읽었거나 스트림이 닫히면 ResultSet, Statement 를 닫고 onClose 로 읽은 행 수/읽기·매핑 시간/오류를 넘긴다.
+ */
+final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+    private final ResultSet rs;
+    private final Statement statement;
+    private final RowMapper<T> mapper;
+    private final CloseHandler onClose;
+    private boolean closed;
+    private long rows;
+    private long fetchNanos;
+    private long mappingNanos;
+    private Exception error;
+
+    // 스트림이 닫힐 때 호출 (커넥션 반납, 실행 기록)
+    @FunctionalInterface
+    interface CloseHandler {
+        void closed(long rows, long fetchNanos, long mappingNanos, Exception error);
+    }
+
+    ResultSetSpliterator(ResultSet rs, Statement statement, RowMapper<T> mapper, CloseHandler onClose) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.rs = rs;
+        this.statement = statement;
+        this.mapper = mapper;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) return false;
+
+        T row;
+        try {
+            long fetchStart = System.nanoTime();
+            boolean hasRow = rs.next();
+            long mapStart = System.nanoTime();
+            fetchNanos += mapStart - fetchStart;
+            if (!hasRow) {
+                close();
+                return false;
+            }
+            row = mapper.map(rs);
+            mappingNanos += System.nanoTime() - mapStart;
+            rows++;
+        } catch (SQLException e) {
+            error = e;
+            close();
+            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            error = e;
+            close();
+            throw e;
+        }
+
+        action.accept(row);
+        return true;
+    }
+
+    void close() {
+        if (closed) return;
+        closed = true;
+
+        try {
+            rs.close();
+        } catch (SQLException ignore) {
+            // 커넥션이 끊겼으면 무시
+        }
+        try {
+            statement.close();
+        } catch (SQLException ignore) {
+            // 커넥션이 끊겼으면 무시
+        } finally {
+            onClose.closed(rows, fetchNanos, mappingNanos, error);
+        }
+    }
+}
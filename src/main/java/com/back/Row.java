@@ -0,0 +1,189 @@
+package com.back;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/*
+    selectRows() 의 행 1개
+    - 컬럼명은 결과 집합 전체가 RowHeader 하나를 공유하고, 행마다 값 배열(Object[])만 가진다.
+    - 기존 코드와 호환되도록 Map 으로 쓸 수 있다. (컬럼 순서 유지, 같은 컬럼명은 하나로 합치고 마지막 값을 씀)
+    - 있는 컬럼의 값은 put 으로 바로 바꾼다.
+    - 컬럼을 추가/삭제하면(put 새 컬럼, remove, clear) 그때 한 번 이 행만의 LinkedHashMap 으로 옮겨 담고 이후는 그 Map 에 위임한다.
+ */
+public final class Row extends AbstractMap<String, Object> {
+    private final RowHeader header;
+    private final Object[] values;
+    // 컬럼을 추가/삭제한 뒤의 내용 (그 전까지는 null)
+    private Map<String, Object> detached;
+
+    Row(RowHeader header, Object[] values) {
+        this.header = header;
+        this.values = values;
+    }
+
+    // 값마다 copier 를 적용한 새 Row (컬럼명 정보는 공유)
+    Row copy(UnaryOperator<Object> copier) {
+        if (detached != null) {
+            Row row = new Row(header, values.clone());
+            row.detached = new LinkedHashMap<>();
+            detached.forEach((key, value) -> row.detached.put(key, copier.apply(value)));
+            return row;
+        }
+
+        Object[] copied = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            copied[i] = copier.apply(values[i]);
+        }
+        return new Row(header, copied);
+    }
+
+    // 0 부터 시작하는 컬럼 순서로 조회 (같은 컬럼명이 합쳐진 뒤의 순서, 컬럼을 추가/삭제했다면 바뀐 뒤의 순서)
+    public Object get(int index) {
+        if (detached != null) {
+            Objects.checkIndex(index, detached.size());
+            return new ArrayList<>(detached.values()).get(index);
+        }
+        return values[index];
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (detached != null) return detached.get(key);
+
+        int index = header.indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (detached != null) return detached.containsKey(key);
+
+        return header.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (detached == null) {
+            int index = header.indexOf(key);
+            if (index >= 0) {
+                Object old = values[index];
+                values[index] = value;
+                return old;
+            }
+        }
+        return detach().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (detached == null && !containsKey(key)) return null;
+
+        return detach().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        detach().clear();
+    }
+
+    @Override
+    public int size() {
+        if (detached != null) return detached.size();
+
+        return header.size();
+    }
+
+    // 컬럼 구성이 바뀌는 첫 시점에 이 행만의 Map 으로 옮겨 담는다
+    private Map<String, Object> detach() {
+        if (detached == null) {
+            Map<String, Object> map = new LinkedHashMap<>(header.size() * 4 / 3 + 1);
+            for (int i = 0; i < values.length; i++) {
+                map.put(header.label(i), values[i]);
+            }
+            detached = map;
+        }
+        return detached;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (detached != null) return detached.entrySet();
+
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return new ColumnEntry(index++);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (index == 0) throw new IllegalStateException();
+                        detach().remove(header.label(index - 1));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Row.this.size();
+            }
+        };
+    }
+
+    private final class ColumnEntry implements Entry<String, Object> {
+        private final int index;
+
+        private ColumnEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return header.label(index);
+        }
+
+        @Override
+        public Object getValue() {
+            if (detached != null) return detached.get(getKey());
+
+            return values[index];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            if (detached != null) return detached.put(getKey(), value);
+
+            Object old = values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> e
+                    && Objects.equals(getKey(), e.getKey())
+                    && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
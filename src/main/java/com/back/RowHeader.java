@@ -0,0 +1,52 @@
+package com.back;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 결과 집합 1개의 모든 Row 가 공유하는 컬럼명 정보
+final class RowHeader {
+    private final String[] labels;
+    // labels[i] 값을 읽을 ResultSet 컬럼 위치 (0 부터)
+    private final int[] columns;
+    private final Map<String, Integer> indexes;
+
+    RowHeader(String[] columnLabels) {
+        // 같은 라벨이 여러 번 나오면 LinkedHashMap 처럼 처음 나온 자리에 마지막 값을 쓴다
+        Map<String, Integer> lastColumns = new LinkedHashMap<>(columnLabels.length * 2);
+        for (int i = 0; i < columnLabels.length; i++) {
+            lastColumns.put(columnLabels[i], i);
+        }
+
+        int size = lastColumns.size();
+        this.labels = new String[size];
+        this.columns = new int[size];
+        this.indexes = new HashMap<>(size * 2);
+
+        int index = 0;
+        for (Map.Entry<String, Integer> e : lastColumns.entrySet()) {
+            labels[index] = e.getKey();
+            columns[index] = e.getValue();
+            indexes.put(e.getKey(), index);
+            index++;
+        }
+    }
+
+    int size() {
+        return labels.length;
+    }
+
+    String label(int index) {
+        return labels[index];
+    }
+
+    int column(int index) {
+        return columns[index];
+    }
+
+    // 없으면 -1
+    int indexOf(Object label) {
+        Integer index = indexes.get(label);
+        return index == null ? -1 : index;
+    }
+}
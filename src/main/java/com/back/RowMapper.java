@@ -0,0 +1,10 @@
+package com.back;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// ResultSet 의 현재 행 1개를 객체로 변환
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
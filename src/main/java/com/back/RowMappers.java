@@ -0,0 +1,41 @@
+package com.back;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// (클래스, 결과 컬럼 구성) 별로 컴파일한 매퍼 캐시
+final class RowMappers {
+    private record Key(Class<?> clazz, String shape) {
+    }
+
+    private static final ConcurrentMap<Key, RowMapper<?>> mappers = new ConcurrentHashMap<>();
+
+    private RowMappers() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> of(Class<T> clazz, ResultSetMetaData meta) throws SQLException {
+        String[] columnLabels = columnLabels(meta);
+        Key key = new Key(clazz, String.join(",", columnLabels));
+
+        return (RowMapper<T>) mappers.computeIfAbsent(key, k -> compile(clazz, columnLabels));
+    }
+
+    // record / 기본 생성자 없는 클래스 → 생성자 방식, 나머지 → setter 방식
+    private static <T> RowMapper<T> compile(Class<T> clazz, String[] columnLabels) {
+        if (ConstructorRowMapper.supports(clazz)) {
+            return ConstructorRowMapper.compile(clazz, columnLabels);
+        }
+        return BeanRowMapper.compile(clazz, columnLabels);
+    }
+
+    static String[] columnLabels(ResultSetMetaData meta) throws SQLException {
+        String[] labels = new String[meta.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = meta.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+}
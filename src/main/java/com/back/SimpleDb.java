@@ -1,14 +1,21 @@
 package com.back;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
 import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 @Setter
 public class SimpleDb {
+    private static final String ALL_TABLES = "*";
+
     private String host;
     private String username;
     private String password;
@@ -16,17 +23,96 @@ public class SimpleDb {
     @Getter
     private boolean devMode;
 
-    // 스레드별 Connection 관리
-    private ThreadLocal<Connection> connectionHolder = new ThreadLocal<>();
+    // 물리 커넥션 생성 방법 (null 이면 host/dbName 으로 DriverManager 접속, 벤치마크의 가짜 커넥션 등에 사용)
+    private ConnectionFactory connectionFactory;
 
-    public SimpleDb(String host, String username, String password, String dbName) {
+    // DB 종류 (기본 MySQL, 내장 DB 는 embedded(...) 참고)
+    @Getter
+    private Dialect dialect = Dialect.MYSQL;
 
-        //굳이 없어도 자동으로 드라이버를 로드하지만 호환성, 명시성 때문에 넣어주는게 좋다.
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver"); // MySQL 드라이버 로드
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("MySQL Driver not found", e);
-        }
+    // 드라이버 접속 옵션 (첫 커넥션 요청 전에 설정해야 반영된다)
+    @Getter
+    private ConnectionProperties connectionProperties = ConnectionProperties.defaults();
+
+    // 커넥션 풀 설정 (첫 커넥션 요청 전에 설정해야 반영된다)
+    private int minPoolSize = 5;
+    private int maxPoolSize = 20;
+    private long borrowTimeoutMs = 5_000;
+    private long idleTimeoutMs = 600_000;
+    private long evictionIntervalMs = 30_000;
+    // 커넥션별 PreparedStatement 캐시 크기 (0 이면 캐시 안 함)
+    private int statementCacheSize = 64;
+    // BatchSql 이 한 번에 executeBatch 할 행 수
+    @Getter
+    private int batchSize = 1_000;
+    // appendIn 의 IN (?) 목록 길이를 1, 2, 4, 8 ... 단위로 맞출지
+    @Getter
+    private boolean inListPadding = true;
+    // Sql.insertAll() 이 INSERT 한 개에 담을 최대 크기 (서버 max_allowed_packet 보다 작게)
+    @Getter
+    private long maxAllowedPacket = 4L * 1024 * 1024;
+
+    // SQL 모양별 실행 통계 (느린 쿼리 기준 등은 metrics 에서 설정)
+    @Getter
+    @Setter(AccessLevel.NONE)
+    private final SqlMetrics metrics = new SqlMetrics();
+
+    // Java 타입별 파라미터 바인더 (커스텀 타입은 paramBinders.register(...))
+    @Getter
+    @Setter(AccessLevel.NONE)
+    private final ParamBinders paramBinders = new ParamBinders();
+
+    // SQL 로그를 받을 곳 (없으면 devMode 일 때만 기본 비동기 로거로 System.out 에 출력)
+    private volatile SqlLogger sqlLogger;
+
+    @Setter(AccessLevel.NONE)
+    private volatile AsyncSqlLogger devSqlLogger;
+
+    // 읽기 쿼리 결과 캐시 (기본 꺼짐, 첫 사용 전에 설정)
+    private boolean resultCacheEnabled;
+    private int resultCacheMaxSize = 10_000;
+    private long resultCacheTtlMs = 60_000;
+
+    @Setter(AccessLevel.NONE)
+    private volatile QueryResultCache resultCache;
+
+    // 읽기 replica ("host" 또는 "host:port"). 비어 있으면 모든 쿼리를 primary(host) 로 보낸다
+    private List<String> replicaHosts = List.of();
+    private long replicaHealthCheckIntervalMs = 5_000;
+    // 쓰기 후 이 시간 동안은 같은 스레드의 읽기도 primary 로 (replica 복제 지연 대비)
+    private long readYourWritesWindowMs = 1_000;
+
+    @Setter(AccessLevel.NONE)
+    private volatile ReplicaRouter replicaRouter;
+
+    // inTransaction 이 교착 상태/락 대기 초과로 실패했을 때 다시 시도할 횟수와 첫 대기 시간 (시도마다 2배)
+    private int transactionMaxRetries = 3;
+    private long transactionRetryBackoffMs = 20;
+
+    // 비동기 쿼리(가상 스레드)가 동시에 쓸 수 있는 커넥션 수 (maxPoolSize 중 비동기 몫)
+    private int asyncMaxConcurrency = 10;
+
+    // 첫 커넥션 요청 시 생성
+    @Setter(AccessLevel.NONE)
+    private volatile ConnectionPool pool;
+
+    // 첫 비동기 요청 시 생성
+    @Setter(AccessLevel.NONE)
+    private volatile AsyncExecutor asyncExecutor;
+
+    // 스레드별 Connection 관리 (풀에서 빌려온 커넥션)
+    @Setter(AccessLevel.NONE)
+    private final ThreadLocal<PooledConnection> connectionHolder = new ThreadLocal<>();
+
+    // 스레드별 마지막 쓰기 시각 (System.nanoTime)
+    @Setter(AccessLevel.NONE)
+    private final ThreadLocal<Long> lastWriteAtHolder = new ThreadLocal<>();
+
+    // 스레드별 1차 캐시 (트랜잭션 중이거나 withIdentityMap 안에서만 존재)
+    @Setter(AccessLevel.NONE)
+    private final ThreadLocal<IdentityMap> identityMapHolder = new ThreadLocal<>();
+
+    public SimpleDb(String host, String username, String password, String dbName) {
 
         this.host = host;
         this.username = username;
@@ -34,25 +120,355 @@ public class SimpleDb {
         this.dbName = dbName;
     }
 
+    /*
+        내장 DB 로 여는 SimpleDb (MySQL 없이 로컬 실행/부하 테스트용)
+        ex) SimpleDb.embedded(Dialect.H2, "simpleDb__test")
+            SimpleDb.embedded(Dialect.SQLITE, ":memory:")
+     */
+    public static SimpleDb embedded(Dialect dialect, String dbName) {
+        SimpleDb simpleDb = new SimpleDb("mem", "sa", "", dbName);
+        simpleDb.setDialect(dialect);
+        return simpleDb;
+    }
+
     private String buildUrlWithDb() {
-        return String.format(
-                "jdbc:mysql://%s:3306/%s?serverTimezone=Asia/Seoul&characterEncoding=UTF-8",
-                host, dbName
-        );
+        return buildUrl(host);
+    }
+
+    private String buildUrl(String host) {
+        return dialect.jdbcUrl(host, dbName, connectionProperties);
+    }
+
+    // 풀은 처음 필요할 때 만들고, 그때 minPoolSize 만큼 미리 연결해 둔다.
+    public ConnectionPool getPool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (this) {
+                p = pool;
+                if (p == null) {
+                    if (connectionFactory == null) dialect.loadDriver();
+                    ConnectionFactory factory = connectionFactory != null
+                            ? connectionFactory
+                            : () -> DriverManager.getConnection(buildUrlWithDb(), username, password);
+                    p = new ConnectionPool(
+                            factory,
+                            minPoolSize, maxPoolSize, borrowTimeoutMs, idleTimeoutMs, evictionIntervalMs,
+                            statementCacheSize
+                    );
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    /*
+        풀(과 replica 풀)을 지금 만들어 minPoolSize 만큼 연결해 둔다.
+        설정을 마친 뒤 애플리케이션 시작 시 호출하면 첫 요청이 연결 비용을 치르지 않는다.
+     */
+    public void warmUp() {
+        getPool();
+        getReplicaRouter();
+    }
+
+    // replica 가 설정되지 않았으면 null
+    public ReplicaRouter getReplicaRouter() {
+        if (replicaHosts.isEmpty()) return null;
+
+        ReplicaRouter r = replicaRouter;
+        if (r == null) {
+            synchronized (this) {
+                r = replicaRouter;
+                if (r == null) {
+                    r = new ReplicaRouter(
+                            replicaHosts,
+                            replicaHost -> new ConnectionPool(
+                                    () -> DriverManager.getConnection(buildUrl(replicaHost), username, password),
+                                    0, maxPoolSize, borrowTimeoutMs, idleTimeoutMs, evictionIntervalMs,
+                                    statementCacheSize
+                            ),
+                            replicaHealthCheckIntervalMs
+                    );
+                    replicaRouter = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    /*
+        읽기 쿼리용 replica 커넥션. 다음 경우에는 null (→ 스레드의 primary 커넥션 사용)
+        - replica 가 없거나 모두 비정상
+        - 트랜잭션 중
+        - 이 스레드에서 readYourWritesWindowMs 안에 쓰기가 있었음
+     */
+    ReplicaRouter.Lease borrowReplica() {
+        ReplicaRouter router = getReplicaRouter();
+        if (router == null || isInTransaction()) return null;
+
+        Long lastWriteAt = lastWriteAtHolder.get();
+        if (lastWriteAt != null) {
+            if (System.nanoTime() - lastWriteAt < readYourWritesWindowMs * 1_000_000) return null;
+            lastWriteAtHolder.remove();
+        }
+
+        return router.borrow();
+    }
+
+    public AsyncExecutor getAsyncExecutor() {
+        AsyncExecutor e = asyncExecutor;
+        if (e == null) {
+            synchronized (this) {
+                e = asyncExecutor;
+                if (e == null) {
+                    e = new AsyncExecutor(this, asyncMaxConcurrency);
+                    asyncExecutor = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /*
+        work 를 가상 스레드에서 실행 (호출한 스레드의 트랜잭션과는 별개의 커넥션을 씀)
+        ex) simpleDb.supplyAsync(() -> simpleDb.genSql().append("SELECT COUNT(*) FROM article").selectLong())
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> work) {
+        return getAsyncExecutor().supply(work);
     }
 
     /*
-        스레드 A가 getConnection()을 부르면 A 전용 Connection이 생김
-        스레드 B가 호출하면 B 전용 Connection이 따로 생김
+        스레드 A가 getConnection()을 부르면 풀에서 A 전용 Connection을 빌려옴
+        스레드 B가 호출하면 B 전용 Connection을 따로 빌려옴
         A, B 스레드는 서로의 커넥션을 건드리지 않음
+        빌려온 커넥션은 close() 때 풀로 반납됨
      */
     public Connection getConnection() throws SQLException {
-        Connection conn = connectionHolder.get();
-        if (conn == null || conn.isClosed()) {
-            conn = DriverManager.getConnection(buildUrlWithDb(), username, password);
-            connectionHolder.set(conn);
+        PooledConnection pc = connectionHolder.get();
+        if (pc == null || pc.isClosed()) {
+            if (pc != null) {
+                // 새로 빌리다 실패해도 끊긴 커넥션이 남아 다시 반납되지 않도록 먼저 비운다
+                connectionHolder.remove();
+                getPool().release(pc); // 끊긴 커넥션은 반납하면서 폐기됨
+            }
+            pc = getPool().borrow();
+            connectionHolder.set(pc);
+        }
+        return pc.getConnection();
+    }
+
+    // 실행 1건 마무리: 통계 기록 + SQL 로그 (로그 문자열은 로거 스레드에서 만든다)
+    void recordExecution(String sql, List<?> params, long prepareNanos, long executeNanos, long mappingNanos, long rows) {
+        metrics.record(sql, prepareNanos, executeNanos, mappingNanos, rows);
+        log(sql, params, prepareNanos + executeNanos + mappingNanos, null);
+    }
+
+    // 실패한 실행 1건 마무리: 오류 수 기록 + 예외를 담은 SQL 로그
+    void recordFailure(String sql, List<?> params, long elapsedNanos, Throwable error) {
+        metrics.recordError(sql);
+        log(sql, params, elapsedNanos, error);
+    }
+
+    private void log(String sql, List<?> params, long nanos, Throwable error) {
+        SqlLogger logger = activeSqlLogger();
+        if (logger != null && logger.shouldLog()) {
+            logger.log(new SqlLogEvent(sql, params.toArray(), nanos,
+                    System.currentTimeMillis(), Thread.currentThread().getName(), error));
+        }
+    }
+
+    private SqlLogger activeSqlLogger() {
+        if (sqlLogger != null) return sqlLogger;
+        if (!devMode) return null;
+
+        AsyncSqlLogger logger = devSqlLogger;
+        if (logger == null) {
+            synchronized (this) {
+                logger = devSqlLogger;
+                if (logger == null) {
+                    logger = new AsyncSqlLogger();
+                    devSqlLogger = logger;
+                }
+            }
+        }
+        return logger;
+    }
+
+    // 결과 캐시 (꺼져 있으면 null)
+    public QueryResultCache getResultCache() {
+        if (!resultCacheEnabled) return null;
+
+        QueryResultCache c = resultCache;
+        if (c == null) {
+            synchronized (this) {
+                c = resultCache;
+                if (c == null) {
+                    c = new QueryResultCache(resultCacheMaxSize, resultCacheTtlMs);
+                    resultCache = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    // 지금 읽기에 쓸 수 있는 결과 캐시 (트랜잭션 중에는 커밋 안 된 데이터를 보므로 캐시를 쓰지 않음)
+    QueryResultCache readableResultCache() {
+        QueryResultCache c = getResultCache();
+        if (c == null || isInTransaction()) return null;
+        return c;
+    }
+
+    // 쓰기 쿼리 실행 후: 바뀐 테이블의 1차 캐시/결과 캐시 무효화 (트랜잭션 중이면 결과 캐시는 커밋 때 한 번 더)
+    void onWrite(String sql) {
+        // 라우터는 첫 읽기 때 만들어지므로 설정으로 판단 (읽기 전에 쓴 경우도 primary 에서 읽도록)
+        if (!replicaHosts.isEmpty()) lastWriteAtHolder.set(System.nanoTime());
+
+        IdentityMap identityMap = identityMapHolder.get();
+        if (identityMap != null) identityMap.evict(SqlTables.of(sql));
+
+        QueryResultCache c = resultCache;
+        if (c == null) return;
+
+        c.invalidate(sql);
+
+        PooledConnection pc = connectionHolder.get();
+        if (pc != null && isInTransaction()) {
+            String[] tables = SqlTables.of(sql);
+            // 테이블을 알 수 없는 쓰기는 커밋 때 전체 무효화
+            if (tables.length == 0) pc.touchedTables.add(ALL_TABLES);
+            else pc.touchedTables.addAll(Arrays.asList(tables));
         }
-        return conn;
+    }
+
+    // 현재 스레드에서 startTransaction() 후 commit()/rollback() 전인지
+    public boolean isInTransaction() {
+        PooledConnection pc = connectionHolder.get();
+        if (pc == null || pc.isClosed()) return false;
+
+        try {
+            return !pc.getConnection().getAutoCommit();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // 현재 스레드 커넥션의 statement 캐시에서 꺼냄. 다 쓰면 releaseStatement() 로 돌려줘야 함
+    PreparedStatement prepareStatement(String sql, boolean returnGeneratedKeys) throws SQLException {
+        getConnection();
+        return connectionHolder.get().getStatementCache().prepare(sql, returnGeneratedKeys);
+    }
+
+    void releaseStatement(PreparedStatement ps) {
+        PooledConnection pc = connectionHolder.get();
+        if (pc != null) {
+            pc.getStatementCache().release(ps);
+            return;
+        }
+
+        // 그 사이 커넥션이 반납됐다면 그냥 닫는다
+        try {
+            ps.close();
+        } catch (SQLException ignore) {
+            // 이미 닫힌 statement 면 무시
+        }
+    }
+
+    /*
+        work 를 1차 캐시 범위 안에서 실행 (이미 범위 안이면 그대로 실행)
+        범위 안에서 findById / findByIds 로 읽은 객체는 같은 id 면 같은 인스턴스가 돌아온다.
+        트랜잭션(startTransaction ~ commit/rollback)도 자동으로 범위가 된다.
+     */
+    public <T> T withIdentityMap(Supplier<T> work) {
+        if (identityMapHolder.get() != null) return work.get();
+
+        identityMapHolder.set(new IdentityMap(false));
+        try {
+            return work.get();
+        } finally {
+            identityMapHolder.remove();
+        }
+    }
+
+    // 현재 스레드의 1차 캐시 (범위 밖이면 null)
+    public IdentityMap getIdentityMap() {
+        return identityMapHolder.get();
+    }
+
+    // 기본 키(id) 로 1건 조회. 테이블 이름은 클래스 이름을 snake_case 로 (Article → article)
+    public <T> T findById(Class<T> clazz, Object id) {
+        return findById(clazz, tableName(clazz), id);
+    }
+
+    public <T> T findById(Class<T> clazz, String table, Object id) {
+        IdentityMap identityMap = identityMapHolder.get();
+        if (identityMap != null) {
+            T found = identityMap.get(table, clazz, id);
+            if (found != null) return found;
+        }
+
+        T entity = genSql()
+                .append("SELECT * FROM " + table + " WHERE id = ?", id)
+                .selectRow(clazz);
+
+        if (entity != null && identityMap != null) identityMap.put(table, clazz, id, entity);
+        return entity;
+    }
+
+    /*
+        여러 id 를 한 번에 조회 (ids 순서대로, 없는 id 는 빠짐)
+        1차 캐시에 없는 id 만 IN (...) 한 번으로 읽는다.
+     */
+    public <T> List<T> findByIds(Class<T> clazz, Collection<?> ids) {
+        return findByIds(clazz, tableName(clazz), ids);
+    }
+
+    public <T> List<T> findByIds(Class<T> clazz, String table, Collection<?> ids) {
+        IdentityMap identityMap = identityMapHolder.get();
+
+        Map<Object, T> found = new HashMap<>();
+        Set<Object> missing = new LinkedHashSet<>();
+        for (Object id : ids) {
+            Object key = IdentityMap.normalizeId(id);
+            T entity = identityMap == null ? null : identityMap.get(table, clazz, key);
+            if (entity != null) found.put(key, entity);
+            else missing.add(key);
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Object, T> loaded = genSql()
+                    .append("SELECT * FROM " + table)
+                    .appendIn("WHERE id IN (?)", missing.toArray())
+                    .selectRowsByKey(clazz, "id");
+
+            found.putAll(loaded);
+            if (identityMap != null) {
+                loaded.forEach((key, entity) -> identityMap.put(table, clazz, key, entity));
+            }
+        }
+
+        List<T> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            T entity = found.get(IdentityMap.normalizeId(id));
+            if (entity != null) result.add(entity);
+        }
+        return result;
+    }
+
+    /*
+        기본 키(정수) 범위를 나눠 여러 커넥션에서 동시에 읽는 전체 스캔 (PartitionedScan 참고)
+        ex) simpleDb.scanPartitioned(Article.class, "article", "id").parallelism(4).forEach(...)
+     */
+    public <T> PartitionedScan<T> scanPartitioned(Class<T> clazz, String table, String keyColumn) {
+        return new PartitionedScan<>(this, table, keyColumn, (sql, keepReading) -> sql.selectRowsWhile(clazz, keepReading));
+    }
+
+    public PartitionedScan<Map<String, Object>> scanPartitioned(String table, String keyColumn) {
+        return new PartitionedScan<>(this, table, keyColumn, Sql::selectRowsWhile);
+    }
+
+    // ArticleComment → article_comment
+    private static String tableName(Class<?> clazz) {
+        return clazz.getSimpleName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
     }
 
     // Sql 빌더 생성
@@ -60,25 +476,199 @@ public class SimpleDb {
         return new Sql(this);
     }
 
+    // 같은 SQL 을 여러 파라미터 묶음으로 batch 실행
+    public BatchSql genBatch(String sql) {
+        return new BatchSql(this, sql);
+    }
+
+    public int[] runBatch(String sql, List<Object[]> paramsList) {
+        return genBatch(sql).addAll(paramsList).execute();
+    }
+
+    // 테이블 비우기 + AUTO_INCREMENT 초기화 (DB 종류별 SQL 은 Dialect 가 만든다)
+    public void truncate(String table) {
+        for (String sql : dialect.truncateSql(table)) {
+            run(sql);
+        }
+    }
+
+    /*
+        커넥션은 스레드에서 빌려 쓰기만 하고 닫지 않는다.
+        (닫으면 다음 호출마다 새로 연결해야 하고, 진행 중인 트랜잭션도 깨진다)
+        반납은 close() 에서 한다.
+     */
     public void run(String sql, Object... params) {
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        long start = System.nanoTime();
 
-            // ? 자리에 순서대로 값 바인딩
-            for (int i = 0; i < params.length; i++) {
-                ps.setObject(i + 1, params[i]);
+        try {
+            PreparedStatement ps = prepareStatement(sql, false);
+            try {
+                // ? 자리에 순서대로 값 바인딩
+                List<Object> paramList = Arrays.asList(params);
+                paramBinders.bind(ps, sql, paramList);
+                long prepared = System.nanoTime();
+
+                int affectedRows = ps.executeUpdate(); // INSERT / UPDATE / DELETE / TRUNCATE 다 가능
+
+                recordExecution(sql, paramList, prepared - start, System.nanoTime() - prepared, 0, affectedRows);
+                onWrite(sql);
+            } finally {
+                releaseStatement(ps);
             }
+        } catch (SQLException e) {
+            recordFailure(sql, Arrays.asList(params), System.nanoTime() - start, e);
+            throw new RuntimeException(e);
+        }
+    }
 
-            ps.executeUpdate(); // INSERT / UPDATE / DELETE / TRUNCATE 다 가능
+    /*
+        work 를 트랜잭션 안에서 실행하고 결과 반환
+        - 정상 종료면 커밋, 예외면 롤백 후 예외를 그대로 던진다.
+        - 교착 상태(1213), 락 대기 초과(1205), SQLSTATE 40001 이면 롤백 후 transactionMaxRetries 번까지 다시 실행
+          → work 는 여러 번 실행되어도 괜찮아야 한다.
+        - 이미 트랜잭션 중이면 savepoint 로 감싼다. (실패하면 savepoint 까지만 롤백, 재시도는 바깥 트랜잭션에서)
+          진행 중인 트랜잭션의 격리 수준/읽기 전용은 바꿀 수 없으므로 다르게 요청하면 IllegalStateException
+
+        simpleDb.inTransaction(TransactionIsolation.READ_COMMITTED, () ->
+                simpleDb.genSql().append("UPDATE counter SET hits = hits + 1 WHERE id = ?", 1).update());
+     */
+    public <T> T inTransaction(TransactionIsolation isolation, Supplier<T> work) {
+        return inTransaction(isolation, false, work);
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        return inTransaction(TransactionIsolation.DEFAULT, false, work);
+    }
+
+    // 읽기 전용 트랜잭션 (드라이버에 read only 로 알려 MySQL 이 undo 기록 등을 생략할 수 있게 함)
+    public <T> T inReadOnlyTransaction(TransactionIsolation isolation, Supplier<T> work) {
+        return inTransaction(isolation, true, work);
+    }
+
+    private <T> T inTransaction(TransactionIsolation isolation, boolean readOnly, Supplier<T> work) {
+        if (isInTransaction()) {
+            checkNestedSettings(isolation, readOnly);
+            return inSavepoint(work);
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            Connection conn;
+            int previousIsolation;
+            try {
+                conn = getConnection();
+                previousIsolation = conn.getTransactionIsolation();
+                if (isolation != TransactionIsolation.DEFAULT) conn.setTransactionIsolation(isolation.getJdbcLevel());
+                if (readOnly) conn.setReadOnly(true);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+
+            try {
+                startTransaction();
+                T result = work.get();
+                commit();
+                return result;
+            } catch (RuntimeException | Error e) {
+                rollbackQuietly();
+                if (attempt >= transactionMaxRetries || !isRetryable(e)) throw e;
+                sleepBeforeRetry(attempt);
+            } finally {
+                restoreSettings(conn, isolation, previousIsolation, readOnly);
+            }
+        }
+    }
+
+    // 중첩 호출이 바깥 트랜잭션과 다른 격리 수준/읽기 전용을 요청했으면 (조용히 무시하지 않고) 예외
+    private void checkNestedSettings(TransactionIsolation isolation, boolean readOnly) {
+        try {
+            Connection conn = getConnection();
+            if (isolation != TransactionIsolation.DEFAULT && conn.getTransactionIsolation() != isolation.getJdbcLevel()) {
+                throw new IllegalStateException("진행 중인 트랜잭션과 다른 격리 수준(%s)은 중첩 트랜잭션에서 쓸 수 없습니다.".formatted(isolation));
+            }
+            if (readOnly && !conn.isReadOnly()) {
+                throw new IllegalStateException("읽기/쓰기 트랜잭션 안에서는 읽기 전용 트랜잭션을 시작할 수 없습니다.");
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private <T> T inSavepoint(Supplier<T> work) {
+        Savepoint savepoint;
+        Connection conn;
+        try {
+            conn = getConnection();
+            savepoint = conn.setSavepoint();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+
+        try {
+            T result = work.get();
+            conn.releaseSavepoint(savepoint);
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } catch (RuntimeException | Error e) {
+            try {
+                conn.rollback(savepoint);
+            } catch (SQLException ignore) {
+                // 바깥 트랜잭션 롤백에 맡긴다
+            }
+            // 롤백된 값을 들고 있을 수 있으므로 1차 캐시 비움
+            IdentityMap identityMap = identityMapHolder.get();
+            if (identityMap != null) identityMap.clear();
+            throw e;
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            if (isInTransaction()) rollback();
+        } catch (RuntimeException ignore) {
+            // 원래 예외를 던지는 것이 우선
+        }
+    }
+
+    private void restoreSettings(Connection conn, TransactionIsolation isolation, int previousIsolation, boolean readOnly) {
+        try {
+            if (conn.isClosed()) return;
+            if (readOnly) conn.setReadOnly(false);
+            if (isolation != TransactionIsolation.DEFAULT) conn.setTransactionIsolation(previousIsolation);
+        } catch (SQLException ignore) {
+            // 반납 때 상태를 되돌리지 못한 커넥션은 풀이 폐기한다
+        }
+    }
+
+    // 교착 상태(1213), 락 대기 초과(1205), 직렬화 실패(SQLSTATE 40001) 인지 (원인 예외까지 확인)
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransactionRollbackException) return true;
+            if (t instanceof SQLException sqlException) {
+                int code = sqlException.getErrorCode();
+                if (code == 1213 || code == 1205 || "40001".equals(sqlException.getSQLState())) return true;
+            }
+        }
+        return false;
+    }
+
+    // 20ms, 40ms, 80ms ... + 흔들기 (같은 행을 두고 다투는 트랜잭션끼리 다시 부딪히지 않게)
+    private void sleepBeforeRetry(int attempt) {
+        long backoff = transactionRetryBackoffMs << Math.min(attempt, 10);
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        try {
+            Thread.sleep(backoff + jitter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("재시도 대기 중 인터럽트되었습니다.", e);
+        }
+    }
+
     public void startTransaction() {
         try {
             Connection conn = getConnection();
             conn.setAutoCommit(false); // 자동 커밋 해제
+            if (identityMapHolder.get() == null) identityMapHolder.set(new IdentityMap(true));
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -91,6 +681,9 @@ public class SimpleDb {
             conn.setAutoCommit(true); // 원래 상태로 돌려놓기
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } finally {
+            clearTouchedTables();
+            endIdentityMapScope(true);
         }
     }
 
@@ -99,22 +692,72 @@ public class SimpleDb {
             Connection conn = getConnection();
             conn.commit();
             conn.setAutoCommit(true); // 원래 상태로 돌려놓기
+            if (!replicaHosts.isEmpty()) lastWriteAtHolder.set(System.nanoTime());
+            invalidateTouchedTables();
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } finally {
+            clearTouchedTables();
+            endIdentityMapScope(false);
         }
     }
 
-    // 스레드별 Connection 닫기
+    // 트랜잭션 중 쓴 테이블을 커밋 후 다시 무효화 (트랜잭션 중 다른 스레드가 채운 캐시 정리)
+    private void invalidateTouchedTables() {
+        QueryResultCache c = resultCache;
+        PooledConnection pc = connectionHolder.get();
+        if (c == null || pc == null || pc.touchedTables.isEmpty()) return;
+
+        if (pc.touchedTables.contains(ALL_TABLES)) {
+            c.invalidateAll();
+        } else {
+            c.invalidateTables(pc.touchedTables);
+        }
+    }
+
+    private void clearTouchedTables() {
+        PooledConnection pc = connectionHolder.get();
+        if (pc != null) pc.touchedTables.clear();
+    }
+
+    // 트랜잭션이 만든 1차 캐시는 버리고, withIdentityMap 범위면 롤백 때만 비운다 (롤백된 값을 들고 있으므로)
+    private void endIdentityMapScope(boolean rolledBack) {
+        IdentityMap identityMap = identityMapHolder.get();
+        if (identityMap == null) return;
+
+        if (identityMap.isTransactionScoped()) identityMapHolder.remove();
+        else if (rolledBack) identityMap.clear();
+    }
+
+    // 스레드별 Connection 반납 (물리 커넥션은 풀에서 재사용)
     public void close() {
-        try {
-            Connection conn = connectionHolder.get();
-            if (conn != null && !conn.isClosed()) {
-                conn.close();
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        } finally {
-            connectionHolder.remove();
+        PooledConnection pc = connectionHolder.get();
+        connectionHolder.remove();
+        IdentityMap identityMap = identityMapHolder.get();
+        if (identityMap != null && identityMap.isTransactionScoped()) identityMapHolder.remove();
+        if (pc != null) {
+            getPool().release(pc);
+        }
+    }
+
+    // 풀 전체 종료 (애플리케이션 종료 시)
+    public void shutdown() {
+        close();
+        AsyncExecutor e = asyncExecutor;
+        if (e != null) {
+            e.shutdown();
+        }
+        AsyncSqlLogger logger = devSqlLogger;
+        if (logger != null) {
+            logger.close();
+        }
+        ReplicaRouter r = replicaRouter;
+        if (r != null) {
+            r.shutdown();
+        }
+        ConnectionPool p = pool;
+        if (p != null) {
+            p.shutdown();
         }
     }
 }
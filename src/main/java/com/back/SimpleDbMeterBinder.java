@@ -0,0 +1,57 @@
+package com.back;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+    SqlMetrics 를 Micrometer 에 등록 (Micrometer 가 클래스패스에 있을 때만 사용)
+    ex) @Bean MeterBinder simpleDbMetrics(SimpleDb simpleDb) { return new SimpleDbMeterBinder(simpleDb); }
+ */
+public class SimpleDbMeterBinder implements MeterBinder {
+    private final SimpleDb simpleDb;
+
+    public SimpleDbMeterBinder(SimpleDb simpleDb) {
+        this.simpleDb = simpleDb;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        SqlMetrics metrics = simpleDb.getMetrics();
+        // 리스너를 먼저 걸어야 그 사이에 생긴 SQL 도 빠지지 않는다 (양쪽에서 들어온 SQL 은 한 번만 등록)
+        Set<QueryStats> registered = ConcurrentHashMap.newKeySet();
+
+        metrics.addNewShapeListener(stats -> register(registry, stats, registered));
+        metrics.getAll().forEach(stats -> register(registry, stats, registered));
+    }
+
+    private static void register(MeterRegistry registry, QueryStats stats, Set<QueryStats> registered) {
+        if (!registered.add(stats)) return;
+
+        registerTimer(registry, stats, "prepare", stats.getPrepare());
+        registerTimer(registry, stats, "execute", stats.getExecute());
+        registerTimer(registry, stats, "mapping", stats.getMapping());
+
+        FunctionCounter.builder("simpledb.query.rows", stats, s -> s.getRows().sum())
+                .tag("sql", stats.getSql())
+                .register(registry);
+        FunctionCounter.builder("simpledb.query.errors", stats, s -> s.getErrors().sum())
+                .tag("sql", stats.getSql())
+                .register(registry);
+    }
+
+    private static void registerTimer(MeterRegistry registry, QueryStats stats, String phase, LatencyHistogram histogram) {
+        FunctionTimer.builder("simpledb.query", histogram,
+                        LatencyHistogram::getCount,
+                        LatencyHistogram::getTotalNanos,
+                        TimeUnit.NANOSECONDS)
+                .tag("sql", stats.getSql())
+                .tag("phase", phase)
+                .register(registry);
+    }
+}
@@ -2,343 +2,930 @@ package com.back;
 
 import lombok.Getter;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Sql {
+    private static final int INITIAL_ARRAY_CAPACITY = 16;
+    // MySQL prepared statement 한 개의 최대 ? 개수
+    private static final int MAX_PLACEHOLDERS = 65_535;
+
     private final SimpleDb simpleDb;
-    private final StringBuilder sb = new StringBuilder();
+    // 처음 append 할 때 만든다 (CompiledSql 로 만든 Sql 은 완성된 sql 만 가짐)
+    private StringBuilder sb;
+    // getSql() 결과 (append 하면 비움)
+    private String builtSql;
     @Getter
-    private final List<Object> params = new ArrayList<>();
+    private final List<Object> params;
+    private boolean useResultCache = true;
+    // CompiledSql 의 자리별 바인더 (append 하면 SQL 이 바뀌므로 버린다)
+    private ParamBinders.Slot[] compiledSlots;
+
+    // appendValues 로 붙인 VALUES 목록 (insertAll 이 나눠 보낼 때 사용)
+    private int valuesStart = -1;     // sb 안에서 " VALUES ..." 시작 위치
+    private int valuesEnd;            // sb 안에서 VALUES 목록 끝 위치
+    private int valuesParamStart;     // params 안에서 첫 행 값의 위치
+    private int valuesRowWidth;       // 행당 값 개수
+    private int valuesRowCount;
 
     public Sql(SimpleDb simpleDb) {
         this.simpleDb = simpleDb;
+        this.params = new ArrayList<>();
+    }
+
+    // CompiledSql.bind 용: SQL 문자열은 다시 만들지 않고 파라미터와 자리별 바인더만 채운다
+    Sql(SimpleDb simpleDb, String sql, Object[] params, ParamBinders.Slot[] compiledSlots) {
+        this.simpleDb = simpleDb;
+        this.builtSql = sql;
+        this.params = new ArrayList<>(Arrays.asList(params));
+        this.compiledSlots = compiledSlots;
+    }
+
+    // 이어 붙일 StringBuilder (완성된 sql 만 있으면 그걸로 시작)
+    private StringBuilder builder() {
+        if (sb == null) {
+            sb = new StringBuilder(builtSql == null ? 64 : builtSql.length() + 64);
+            if (builtSql != null) sb.append(builtSql);
+        }
+        builtSql = null;
+        compiledSlots = null;
+        return sb;
     }
 
     public Sql append(String sqlPart, Object... paramValues) {
+        StringBuilder sb = builder();
         if (!sb.isEmpty()) sb.append(" ");
         sb.append(sqlPart);
         params.addAll(Arrays.asList(paramValues));
         return this;
     }
 
+    /*
+        IN 목록 ? 를 값 개수만큼 펼친다.
+        sqlPart 가 "IN (?)" 모양이면 개수를 1, 2, 4, 8 ... 단위로 올리고 남는 자리는 마지막 값으로 채운다.
+        (IN 안의 중복 값은 결과가 같고, 서로 다른 SQL 문자열 수가 줄어 statement 캐시가 잘 맞는다)
+     */
     public Sql appendIn(String sqlPart, Object... paramValues) {
         if (paramValues == null || paramValues.length == 0) {
             // 값이 없으면 WHERE id IN (NULL) 같은 안전한 쿼리로 만듦
+            StringBuilder sb = builder();
             if (!sb.isEmpty()) sb.append(" ");
             sb.append(sqlPart.replace("?", "NULL"));
             return this;
         }
 
-        //?를 paramValues의 개수만큼 ?,?,?...로 변경
+        int count = paramValues.length;
+        if (simpleDb.isInListPadding() && InListPlaceholders.isInList(sqlPart)) {
+            count = InListPlaceholders.bucket(count);
+        }
+
+        //?를 count 개수만큼 ?,?,?...로 변경
+        StringBuilder sb = builder();
         if (!sb.isEmpty()) sb.append(" ");
-        sb.append(sqlPart.replace("?",
-                String.join(", ", Collections.nCopies(paramValues.length, "?"))));
+        sb.append(sqlPart.replace("?", InListPlaceholders.of(count)));
         params.addAll(Arrays.asList(paramValues));
+
+        Object last = paramValues[paramValues.length - 1];
+        for (int i = paramValues.length; i < count; i++) {
+            params.add(last);
+        }
         return this;
     }
 
+    /*
+        다중 행 INSERT 의 VALUES 목록
+        ex) sql.append("INSERT INTO article (title, `body`)").appendValues(List.of(
+                new Object[]{"제목1", "내용1"},
+                new Object[]{"제목2", "내용2"}
+            )).insertAll();
+        → INSERT INTO article (title, `body`) VALUES (?, ?), (?, ?)
+     */
+    public Sql appendValues(List<Object[]> rows) {
+        if (rows.isEmpty()) throw new IllegalArgumentException("VALUES 에 넣을 행이 없습니다.");
+        if (valuesStart >= 0) throw new IllegalStateException("appendValues 는 한 번만 호출할 수 있습니다.");
+
+        int width = rows.getFirst().length;
+        if (width == 0) throw new IllegalArgumentException("행에 값이 없습니다.");
+
+        StringBuilder sb = builder();
+        valuesStart = sb.length();
+        valuesParamStart = params.size();
+        valuesRowWidth = width;
+        valuesRowCount = rows.size();
+
+        sb.append(" VALUES ");
+        String rowPlaceholders = rowPlaceholders(width);
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            if (row.length != width) {
+                throw new IllegalArgumentException("%d번째 행의 값 개수(%d)가 첫 행(%d)과 다릅니다.".formatted(i, row.length, width));
+            }
 
-    public String getSql() {
-        if (simpleDb.isDevMode()) {
-            logDebugSql();
+            if (i > 0) sb.append(", ");
+            sb.append(rowPlaceholders);
+            params.addAll(Arrays.asList(row));
         }
-        return sb.toString();
+        valuesEnd = sb.length();
+        return this;
     }
 
-    private void logDebugSql() {
-        System.out.println("\n== Log ==");
-        System.out.println("== Raw SQL ==");
-        System.out.println(sb.toString());
-        System.out.println("== Params ==");
-        for (int i = 0; i < params.size(); i++) {
-            System.out.printf("[%d] %s%n", i + 1, params.get(i));
+    // 객체 목록 → 행 (ex. appendValues(articles, a -> new Object[]{a.getTitle(), a.getBody()}))
+    public <T> Sql appendValues(List<T> items, Function<T, Object[]> columns) {
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (T item : items) {
+            rows.add(columns.apply(item));
         }
+        return appendValues(rows);
+    }
+
+    private static String rowPlaceholders(int width) {
+        return "(" + String.join(", ", Collections.nCopies(width, "?")) + ")";
+    }
+
+    // 로그는 실행이 끝난 뒤 SimpleDb 의 SqlLogger 로 남긴다 (devMode 면 기본 비동기 로거)
+    public String getSql() {
+        if (builtSql == null) builtSql = sb == null ? "" : sb.toString();
+        return builtSql;
+    }
+
+    /*
+        지금까지 만든 SQL 을 재사용할 템플릿으로 고정 (SQL 문자열은 한 번만 만든다)
+        ex) CompiledSql findTitle = simpleDb.genSql().append("SELECT title FROM article WHERE id = ?").compile();
+            findTitle.bind(1).selectString();
+     */
+    public CompiledSql compile() {
+        return new CompiledSql(simpleDb, getSql());
     }
 
     // INSERT 실행 → 생성된 PK 반환
     public long insert() {
+        long[] ids = insert(getSql(), params);
+        return ids.length > 0 ? ids[0] : -1;
+    }
+
+    /*
+        다중 행 INSERT 실행 → 생성된 PK 전체 반환
+        appendValues 로 붙인 행이 ? 개수 한도(65535)나 maxAllowedPacket 을 넘으면 여러 INSERT 로 나눠 보낸다.
+        (트랜잭션 밖에서 나눠 보내면 중간에 실패했을 때 앞부분만 들어갈 수 있다)
+     */
+    public long[] insertAll() {
+        if (valuesStart < 0) return new long[]{insert()};
+
+        String fullSql = getSql();
+        String prefix = fullSql.substring(0, valuesStart);
+        String suffix = fullSql.substring(valuesEnd);
+        List<Object> prefixParams = params.subList(0, valuesParamStart);
+        List<Object> suffixParams = params.subList(valuesParamStart + valuesRowCount * valuesRowWidth, params.size());
+
+        int fixedPlaceholders = prefixParams.size() + suffixParams.size();
+        int maxRowsByPlaceholders = Math.max(1, (MAX_PLACEHOLDERS - fixedPlaceholders) / valuesRowWidth);
+        long maxBytes = simpleDb.getMaxAllowedPacket() - (prefix.length() + suffix.length()) * 4L;
+        String rowPlaceholders = rowPlaceholders(valuesRowWidth);
+
+        long[] ids = new long[valuesRowCount];
+        int idCount = 0;
+
+        int from = 0;
+        while (from < valuesRowCount) {
+            // 이번 INSERT 에 넣을 행 범위 [from, to)
+            int to = from;
+            long bytes = 0;
+            while (to < valuesRowCount && to - from < maxRowsByPlaceholders) {
+                long rowBytes = estimateRowBytes(to);
+                if (to > from && bytes + rowBytes > maxBytes) break;
+                bytes += rowBytes;
+                to++;
+            }
+
+            int rows = to - from;
+            StringBuilder chunkSql = new StringBuilder(prefix.length() + suffix.length() + 8 + rows * (rowPlaceholders.length() + 2));
+            chunkSql.append(prefix).append(" VALUES ");
+            for (int i = 0; i < rows; i++) {
+                if (i > 0) chunkSql.append(", ");
+                chunkSql.append(rowPlaceholders);
+            }
+            chunkSql.append(suffix);
+
+            List<Object> chunkParams = new ArrayList<>(fixedPlaceholders + rows * valuesRowWidth);
+            chunkParams.addAll(prefixParams);
+            chunkParams.addAll(params.subList(valuesParamStart + from * valuesRowWidth, valuesParamStart + to * valuesRowWidth));
+            chunkParams.addAll(suffixParams);
+
+            for (long id : insert(chunkSql.toString(), chunkParams)) {
+                if (idCount < ids.length) ids[idCount++] = id;
+            }
+            from = to;
+        }
+
+        return idCount == ids.length ? ids : Arrays.copyOf(ids, idCount);
+    }
+
+    // 행 하나가 패킷에서 차지할 크기 추정 (문자열은 utf8mb4 최대 4바이트 + 이스케이프 여유)
+    private long estimateRowBytes(int row) {
+        long bytes = 4; // "(", ")", ", "
+        int offset = valuesParamStart + row * valuesRowWidth;
+        for (int i = 0; i < valuesRowWidth; i++) {
+            Object value = params.get(offset + i);
+            if (value == null) bytes += 4;
+            else if (value instanceof CharSequence cs) bytes += cs.length() * 4L + 2;
+            else if (value instanceof byte[] b) bytes += b.length * 2L + 3;
+            else bytes += 32;
+            bytes += 2;
+        }
+        return bytes;
+    }
+
+    // INSERT 공통 처리 → 생성된 PK 전체 (다중 행 INSERT 면 행 순서대로)
+    private long[] insert(String sql, List<Object> params) {
+        long start = System.nanoTime();
+
         try {
-            Connection conn = simpleDb.getConnection();
             //RETURN_GENERATED_KEYS 옵션을 주면, INSERT 실행 후 DB가 생성한 AUTO_INCREMENT 값을 JDBC가 꺼낼 수 있게 된다.
-            try (PreparedStatement ps = conn.prepareStatement(getSql(), Statement.RETURN_GENERATED_KEYS)) {
-                bindParams(ps);
-                ps.executeUpdate();
+            PreparedStatement ps = simpleDb.prepareStatement(sql, true);
+            try {
+                bindParams(ps, sql, params);
+                long prepared = System.nanoTime();
+
+                int affectedRows = ps.executeUpdate();
+                long executed = System.nanoTime();
+
+                long[] ids = new long[INITIAL_ARRAY_CAPACITY];
+                int idCount = 0;
                 try (ResultSet rs = ps.getGeneratedKeys()) {
-                    if (rs.next()) return rs.getLong(1);
+                    while (rs.next()) {
+                        if (idCount == ids.length) ids = Arrays.copyOf(ids, idCount * 2);
+                        ids[idCount++] = rs.getLong(1);
+                    }
+                }
+
+                simpleDb.recordExecution(sql, params, prepared - start, executed - prepared, System.nanoTime() - executed, affectedRows);
+                simpleDb.onWrite(sql);
+
+                // 마지막 키만 주는 DB(SQLite) 는 연속된 키로 채운다
+                if (idCount == 1 && affectedRows > 1 && !simpleDb.getDialect().returnsAllGeneratedKeys()) {
+                    long last = ids[0];
+                    return LongStream.range(last - affectedRows + 1, last + 1).toArray();
                 }
+                return Arrays.copyOf(ids, idCount);
+            } finally {
+                simpleDb.releaseStatement(ps);
             }
         } catch (SQLException e) {
+            simpleDb.recordFailure(sql, params, System.nanoTime() - start, e);
             throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            simpleDb.recordFailure(sql, params, System.nanoTime() - start, e);
+            throw e;
         }
-        return -1;
     }
 
-    // 파라미터 바인딩
-    private void bindParams(PreparedStatement ps) throws SQLException {
-        for (int i = 0; i < params.size(); i++) {
-            ps.setObject(i + 1, params.get(i));
+    // 파라미터 바인딩 (타입별 바인더는 SimpleDb.getParamBinders() 참고)
+    private void bindParams(PreparedStatement ps, String sql) throws SQLException {
+        bindParams(ps, sql, params);
+    }
+
+    private void bindParams(PreparedStatement ps, String sql, List<Object> params) throws SQLException {
+        // 템플릿 그대로 실행할 때만 CompiledSql 의 자리를 쓴다 (페이지 조회 등은 SQL/파라미터가 다름)
+        if (compiledSlots != null && params == this.params) {
+            simpleDb.getParamBinders().bind(ps, compiledSlots, params);
+        } else {
+            simpleDb.getParamBinders().bind(ps, sql, params);
         }
     }
 
-    public int update() {
-        try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
-                return ps.executeUpdate(); // 영향을 받은 행 수 반환
+    // ResultSet 을 원하는 결과로 바꾸는 함수
+    @FunctionalInterface
+    private interface ResultSetHandler<R> {
+        R handle(ResultSet rs) throws SQLException;
+    }
+
+    /*
+        SELECT 공통 처리
+        PreparedStatement 는 커넥션의 statement 캐시에서 꺼내 쓰고 닫지 않고 돌려준다.
+        ResultSet 만 닫는다.
+        준비(statement + 바인딩) / 실행 / 매핑 시간을 SqlMetrics 에 기록
+        결과 캐시가 켜져 있고 트랜잭션 밖이면 (SQL, 파라미터, 결과 종류) 로 캐시에서 먼저 찾는다.
+     */
+    private <R> R query(String resultKind, Object resultKindArg, ResultSetHandler<R> handler) {
+        return query(getSql(), params, resultKind, resultKindArg, handler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R query(String sql, List<Object> params, String resultKind, Object resultKindArg, ResultSetHandler<R> handler) {
+        QueryResultCache cache = useResultCache ? simpleDb.readableResultCache() : null;
+        QueryResultCache.Stamp stamp = cache == null ? null : cache.stamp(sql);
+        QueryResultCache.Key cacheKey = null;
+
+        if (stamp != null) {
+            cacheKey = new QueryResultCache.Key(sql, new ArrayList<>(params), resultKind, resultKindArg);
+            Optional<Object> cached = cache.get(cacheKey);
+            if (cached.isPresent()) {
+                return (R) QueryResultCache.copyForCaller(QueryResultCache.unwrap(cached.get()));
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
         }
+
+        R result = executeQuery(sql, params, handler);
+
+        if (stamp != null) {
+            cache.put(cacheKey, QueryResultCache.copyForCache(result), stamp);
+        }
+        return result;
     }
 
-    public int delete() {
+    // 트랜잭션 밖이면 replica 에서 읽는다 (SimpleDb.borrowReplica 참고)
+    private <R> R executeQuery(String sql, List<Object> params, ResultSetHandler<R> handler) {
+        long start = System.nanoTime();
+        ReplicaRouter.Lease replica = simpleDb.borrowReplica();
+
         try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
-                return ps.executeUpdate(); // 영향을 받은 행 수 반환
+            PreparedStatement ps = replica == null
+                    ? simpleDb.prepareStatement(sql, false)
+                    : replica.connection().getStatementCache().prepare(sql, false);
+            try {
+                bindParams(ps, sql, params);
+                long prepared = System.nanoTime();
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    long executed = System.nanoTime();
+                    R result = handler.handle(rs);
+
+                    simpleDb.recordExecution(sql, params, prepared - start, executed - prepared, System.nanoTime() - executed, rowCount(result));
+                    return result;
+                }
+            } finally {
+                if (replica == null) simpleDb.releaseStatement(ps);
+                else replica.connection().getStatementCache().release(ps);
             }
         } catch (SQLException e) {
+            simpleDb.recordFailure(sql, params, System.nanoTime() - start, e);
             throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            simpleDb.recordFailure(sql, params, System.nanoTime() - start, e);
+            throw e;
+        } finally {
+            if (replica != null) replica.release();
         }
     }
 
-    public List<Map<String, Object>> selectRows() {
-        List<Map<String, Object>> rows = new ArrayList<>();
+    // 결과 캐시를 쓰지 않음 (항상 DB 에서 읽음)
+    public Sql noCache() {
+        useResultCache = false;
+        return this;
+    }
 
-        try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
+    // 결과 객체로 반환 행 수 추정 (목록/배열은 길이, 단건은 1)
+    private static long rowCount(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Collection<?> c) return c.size();
+        if (result instanceof KeysetPage<?> page) return page.items().size();
+        if (result instanceof long[] a) return a.length;
+        if (result instanceof int[] a) return a.length;
+        if (result instanceof double[] a) return a.length;
+        return 1;
+    }
 
-                try (ResultSet rs = ps.executeQuery()) {
-                    ResultSetMetaData meta = rs.getMetaData();
-                    int columnCount = meta.getColumnCount();
+    // UPDATE / DELETE 공통 처리 → 영향을 받은 행 수 반환
+    private int executeUpdate() {
+        String sql = getSql();
+        long start = System.nanoTime();
 
-                    while (rs.next()) {
-                        Map<String, Object> row = new LinkedHashMap<>();
-                        for (int i = 1; i <= columnCount; i++) {
-                            String columnName = meta.getColumnLabel(i);
-                            Object value = rs.getObject(i);
-                            row.put(columnName, value);
-                        }
-                        rows.add(row);
-                    }
-                }
+        try {
+            PreparedStatement ps = simpleDb.prepareStatement(sql, false);
+            try {
+                bindParams(ps, sql);
+                long prepared = System.nanoTime();
+
+                int affectedRows = ps.executeUpdate();
+
+                simpleDb.recordExecution(sql, params, prepared - start, System.nanoTime() - prepared, 0, affectedRows);
+                simpleDb.onWrite(sql);
+                return affectedRows;
+            } finally {
+                simpleDb.releaseStatement(ps);
             }
         } catch (SQLException e) {
+            simpleDb.recordFailure(sql, params, System.nanoTime() - start, e);
             throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            simpleDb.recordFailure(sql, params, System.nanoTime() - start, e);
+            throw e;
         }
+    }
+
+    public int update() {
+        return executeUpdate();
+    }
+
+    public int delete() {
+        return executeUpdate();
+    }
 
-        return rows;
+    public List<Map<String, Object>> selectRows() {
+        return query("rows", null, rs -> {
+            List<Map<String, Object>> rows = new ArrayList<>();
+
+            RowMapper<Map<String, Object>> mapper = mapRowMapper(rs.getMetaData());
+            while (rs.next()) {
+                rows.add(mapper.map(rs));
+            }
+
+            return rows;
+        });
     }
 
+    // 컬럼명 → 값 Map(Row) 으로 바꾸는 매퍼 (컬럼명은 한 번만 읽어 모든 행이 공유)
+    private static RowMapper<Map<String, Object>> mapRowMapper(ResultSetMetaData meta) throws SQLException {
+        RowHeader header = new RowHeader(RowMappers.columnLabels(meta));
+        int columnCount = header.size();
+
+        return rs -> {
+            Object[] values = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = rs.getObject(header.column(i) + 1);
+            }
+            return new Row(header, values);
+        };
+    }
+
+    // (클래스, 컬럼 구성) 별로 한 번 만들어 둔 매퍼로 변환
     public <T> List<T> selectRows(Class<T> clazz) {
-        List<T> results = new ArrayList<>();
+        return query("rows", clazz, rs -> {
+            RowMapper<T> mapper = RowMappers.of(clazz, rs.getMetaData());
 
-        try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
-                try (ResultSet rs = ps.executeQuery()) {
-                    ResultSetMetaData meta = rs.getMetaData();
-                    int columnCount = meta.getColumnCount();
+            List<T> results = new ArrayList<>();
+            while (rs.next()) {
+                results.add(mapper.map(rs));
+            }
+            return results;
+        });
+    }
 
-                    while (rs.next()) {
-                        //인스턴스 생성
-                        T obj = clazz.getDeclaredConstructor().newInstance();
-
-                        for (int i = 1; i <= columnCount; i++) {
-                            String columnName = meta.getColumnLabel(i);
-                            Object value = rs.getObject(i);
-
-                            if (value instanceof Timestamp ts) {
-                                value = ts.toLocalDateTime();
-                            }
-
-                            // 필드에 값 넣기 (setter 먼저 시도, 없으면 직접 필드 접근)
-                            String setterName = "set" + Character.toUpperCase(columnName.charAt(0)) + columnName.substring(1);
-
-                            try {
-                                // setter 있으면 실행
-                                Method setter = clazz.getMethod(setterName, value.getClass());
-                                setter.invoke(obj, value);
-                            } catch (NoSuchMethodException e) {
-                                // 없으면 필드 직접 접근
-                                try {
-                                    Field field = clazz.getDeclaredField(columnName);
-                                    field.setAccessible(true);
-                                    field.set(obj, value);
-                                } catch (NoSuchFieldException ignore) {
-                                    // 컬럼과 매칭되는 필드 없으면 무시
-                                }
-                            }
-                        }
-                        results.add(obj);
-                    }
+    public Map<String, Object> selectRow() {
+        return query("row", null, rs -> {
+            if (!rs.next()) return null; // 결과가 없으면 null
+
+            return mapRowMapper(rs.getMetaData()).map(rs);
+        });
+    }
+
+    public <T> T selectRow(Class<T> clazz) {
+        return query("row", clazz, rs -> {
+            if (!rs.next()) return null; // 결과 없으면 null
+            return RowMappers.of(clazz, rs.getMetaData()).map(rs); // 있으면 첫 번째 행
+        });
+    }
+
+    /*
+        행마다 keepReading 을 확인해서 false 가 되면 남은 행은 매핑하지 않고 멈춘다 (PartitionedScan 을 닫았을 때)
+        중간에 멈춘 결과일 수 있으므로 결과 캐시는 쓰지 않는다.
+     */
+    <T> List<T> selectRowsWhile(Class<T> clazz, BooleanSupplier keepReading) {
+        return selectRowsWhile(meta -> RowMappers.of(clazz, meta), keepReading);
+    }
+
+    List<Map<String, Object>> selectRowsWhile(BooleanSupplier keepReading) {
+        return selectRowsWhile(Sql::mapRowMapper, keepReading);
+    }
+
+    private <T> List<T> selectRowsWhile(RowMapperFactory<T> mapperFactory, BooleanSupplier keepReading) {
+        return executeQuery(getSql(), params, rs -> {
+            RowMapper<T> mapper = mapperFactory.create(rs.getMetaData());
+
+            List<T> rows = new ArrayList<>();
+            while (keepReading.getAsBoolean() && rs.next()) {
+                rows.add(mapper.map(rs));
+            }
+            return rows;
+        });
+    }
+
+    // keyColumn 값 → 매핑된 객체 (조회 순서 유지, findByIds 용)
+    <T> Map<Object, T> selectRowsByKey(Class<T> clazz, String keyColumn) {
+        return query("rowsByKey", clazz, rs -> {
+            RowMapper<T> mapper = RowMappers.of(clazz, rs.getMetaData());
+            int keyIndex = rs.findColumn(keyColumn);
+
+            Map<Object, T> rows = new LinkedHashMap<>();
+            while (rs.next()) {
+                rows.put(IdentityMap.normalizeId(rs.getObject(keyIndex)), mapper.map(rs));
+            }
+            return rows;
+        });
+    }
+
+    /*
+        키셋 페이지 조회 (OFFSET 없이 "마지막으로 본 키 다음" 부터 읽으므로 몇 번째 페이지든 비용이 같다)
+        - 지금까지 만든 SQL(ORDER BY / LIMIT 없이)을 파생 테이블로 감싸서 정렬 키로 자른다.
+          SELECT * FROM (...) AS keyset_page WHERE (createdDate, id) > (?, ?) ORDER BY createdDate, id LIMIT ?
+        - keyColumns 는 결과 컬럼 이름이고 합쳐서 유일해야 한다. (마지막에 id 를 넣는 식)
+          모두 "id DESC" 처럼 DESC 를 붙이면 내림차순
+        - after 가 null 이면 첫 페이지. 같은 Sql 로 다음 페이지를 계속 조회할 수 있다.
+
+        KeysetPage<Article> page = sql.selectPage(Article.class, null, 20, "createdDate", "id");
+        KeysetPage<Article> next = sql.selectPage(Article.class, page.next(), 20, "createdDate", "id");
+     */
+    public <T> KeysetPage<T> selectPage(Class<T> clazz, KeysetCursor after, int pageSize, String... keyColumns) {
+        return selectPage(meta -> RowMappers.of(clazz, meta), clazz, after, pageSize, keyColumns);
+    }
+
+    public KeysetPage<Map<String, Object>> selectPage(KeysetCursor after, int pageSize, String... keyColumns) {
+        return selectPage(Sql::mapRowMapper, null, after, pageSize, keyColumns);
+    }
+
+    // 키셋 페이지를 필요할 때마다 하나씩 읽어오는 Iterator
+    public <T> Iterator<T> iterateByKeyset(Class<T> clazz, int pageSize, String... keyColumns) {
+        return new Iterator<>() {
+            private Iterator<T> current = Collections.emptyIterator();
+            private KeysetCursor cursor;
+            private boolean lastPage;
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (lastPage) return false;
+
+                    KeysetPage<T> page = selectPage(clazz, cursor, pageSize, keyColumns);
+                    current = page.items().iterator();
+                    cursor = page.next();
+                    lastPage = !page.hasNext();
                 }
+                return true;
             }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
 
-        return results;
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return current.next();
+            }
+        };
     }
 
-    public Map<String, Object> selectRow() {
-        try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
+    private <T> KeysetPage<T> selectPage(RowMapperFactory<T> mapperFactory, Object resultKindArg,
+                                         KeysetCursor after, int pageSize, String[] keyColumns) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize 는 1 이상이어야 합니다: " + pageSize);
+        if (keyColumns.length == 0) throw new IllegalArgumentException("정렬 키가 없습니다.");
+
+        // "createdDate DESC" → 이름 + 방향 (방향은 모두 같아야 (a, b) > (?, ?) 한 번으로 자를 수 있다)
+        String[] names = new String[keyColumns.length];
+        boolean descending = false;
+        for (int i = 0; i < keyColumns.length; i++) {
+            String key = keyColumns[i].trim();
+            String upper = key.toUpperCase(Locale.ROOT);
+            boolean desc = upper.endsWith(" DESC");
+            if (i > 0 && desc != descending) {
+                throw new IllegalArgumentException("정렬 방향이 섞인 키는 지원하지 않습니다: " + String.join(", ", keyColumns));
+            }
+            descending = desc;
 
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (!rs.next()) return null; // 결과가 없으면 null
+            if (desc) key = key.substring(0, key.length() - 5).trim();
+            else if (upper.endsWith(" ASC")) key = key.substring(0, key.length() - 4).trim();
+            names[i] = key;
+        }
 
-                    ResultSetMetaData meta = rs.getMetaData();
-                    int columnCount = meta.getColumnCount();
+        String keyList = String.join(", ", names);
+        String baseSql = getSql();
+        StringBuilder pageSql = new StringBuilder(baseSql.length() + 96)
+                .append("SELECT * FROM (").append(baseSql).append(") AS keyset_page");
+        List<Object> pageParams = new ArrayList<>(params.size() + names.length + 1);
+        pageParams.addAll(params);
+
+        if (after != null) {
+            Object[] afterKeys = after.keys();
+            if (afterKeys.length != names.length) {
+                throw new IllegalArgumentException("커서 키 개수(%d)가 정렬 키 개수(%d)와 다릅니다.".formatted(afterKeys.length, names.length));
+            }
+            pageSql.append(" WHERE (").append(keyList).append(descending ? ") < (" : ") > (")
+                    .append(InListPlaceholders.of(names.length)).append(")");
+            pageParams.addAll(Arrays.asList(afterKeys));
+        }
+
+        pageSql.append(" ORDER BY ").append(descending ? String.join(" DESC, ", names) + " DESC" : keyList);
+        // 한 행 더 읽어서 다음 페이지가 있는지 확인
+        pageSql.append(" LIMIT ?");
+        pageParams.add(pageSize + 1);
+
+        return query(pageSql.toString(), pageParams, "page", resultKindArg, rs -> {
+            RowMapper<T> mapper = mapperFactory.create(rs.getMetaData());
+            int[] keyIndexes = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                keyIndexes[i] = rs.findColumn(names[i].replace("`", ""));
+            }
 
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    for (int i = 1; i <= columnCount; i++) {
-                        String columnName = meta.getColumnLabel(i); // 컬럼명
-                        Object value = rs.getObject(i);            // 값
-                        row.put(columnName, value);
+            List<T> items = new ArrayList<>(Math.min(pageSize, 1_024));
+            Object[] lastKeys = null;
+            boolean hasNext = false;
+
+            while (rs.next()) {
+                if (items.size() == pageSize) {
+                    hasNext = true;
+                    break;
+                }
+
+                items.add(mapper.map(rs));
+                if (items.size() == pageSize) {
+                    lastKeys = new Object[keyIndexes.length];
+                    for (int i = 0; i < keyIndexes.length; i++) {
+                        lastKeys[i] = rs.getObject(keyIndexes[i]);
                     }
-                    return row;
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
-    }
 
-    public <T> T selectRow(Class<T> clazz) {
-        List<T> rows = selectRows(clazz);
-        if (rows.isEmpty()) return null; // 결과 없으면 null
-        return rows.getFirst();              // 있으면 첫 번째 행
+            return new KeysetPage<>(Collections.unmodifiableList(items), hasNext ? new KeysetCursor(lastKeys) : null);
+        });
     }
-    public LocalDateTime selectDatetime() {
-        try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
 
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        Timestamp ts = rs.getTimestamp(1);
-                        if (ts != null) {
-                            return ts.toLocalDateTime();
-                        }
-
-                        /*
-                        * NOTE:
-                        * - 아래의 코드처럼 getObject(..., LocalDateTime.class)를 쓰면 Timestamp 없이 바로 LocalDateTime을 얻을 수 있음
-                        * - 그러나 구버전 JDBC 드라이버는 이를 지원하지 않을 수 있음
-                        * - 또한 Timestamp는 DATE/TIME/DATETIME/TIMESTAMP 모두 커버 가능
-                        * => 호환성과 안정성을 위해 Timestamp를 거쳐 변환하는 방식을 사용
-                        */
-                        // return rs.getObject(1, LocalDateTime.class);
-                    }
-                    throw new IllegalStateException("쿼리 결과가 없습니다: " + getSql());
+    public LocalDateTime selectDatetime() {
+        return query("datetime", null, rs -> {
+            if (rs.next()) {
+                Timestamp ts = rs.getTimestamp(1);
+                if (ts != null) {
+                    return ts.toLocalDateTime();
                 }
+
+                /*
+                * NOTE:
+                * - 아래의 코드처럼 getObject(..., LocalDateTime.class)를 쓰면 Timestamp 없이 바로 LocalDateTime을 얻을 수 있음
+                * - 그러나 구버전 JDBC 드라이버는 이를 지원하지 않을 수 있음
+                * - 또한 Timestamp는 DATE/TIME/DATETIME/TIMESTAMP 모두 커버 가능
+                * => 호환성과 안정성을 위해 Timestamp를 거쳐 변환하는 방식을 사용
+                */
+                // return rs.getObject(1, LocalDateTime.class);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+            throw new IllegalStateException("쿼리 결과가 없습니다: " + getSql());
+        });
     }
 
     public Long selectLong() {
-        try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        Object value = rs.getObject(1);
-                        if (value == null) return null;
-                        if (value instanceof Number num) {
-                            return num.longValue();
-                        }
-                    }
+        return query("long", null, rs -> {
+            if (rs.next()) {
+                Object value = rs.getObject(1);
+                if (value == null) return null;
+                if (value instanceof Number num) {
+                    return num.longValue();
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+            return null;
+        });
     }
 
     public String selectString() {
-        try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        Object value = rs.getObject(1);
-                        if (value == null) return null;
-                        if (value instanceof String str) {
-                            return str;
-                        }
-                    }
+        return query("string", null, rs -> {
+            if (rs.next()) {
+                Object value = rs.getObject(1);
+                if (value == null) return null;
+                if (value instanceof String str) {
+                    return str;
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+            return null;
+        });
     }
 
     public Boolean selectBoolean() {
-        try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        Object value = rs.getObject(1);
-                        if (value == null) return null;
-                        if (value instanceof Boolean bool) {
-                            return bool;
-                        }
-                        if (value instanceof Number num) {
-                            return num.intValue() != 0; // 1 → true, 0 → false
-                        }
-                        if (value instanceof String s) {
-                            return s.equals("1") || s.equalsIgnoreCase("true");
-                        }
-                    }
+        return query("boolean", null, rs -> {
+            if (rs.next()) {
+                Object value = rs.getObject(1);
+                if (value == null) return null;
+                if (value instanceof Boolean bool) {
+                    return bool;
+                }
+                if (value instanceof Number num) {
+                    return num.intValue() != 0; // 1 → true, 0 → false
+                }
+                if (value instanceof String s) {
+                    return s.equals("1") || s.equalsIgnoreCase("true");
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+            return null;
+        });
     }
 
     public List<Long> selectLongs() {
-        List<Long> results = new ArrayList<>();
+        return query("longs", null, rs -> {
+            List<Long> results = new ArrayList<>();
+            while (rs.next()) {
+                Object value = rs.getObject(1);
+                if (value instanceof Number num) {
+                    results.add(num.longValue());
+                }
+            }
+            return results;
+        });
+    }
+
+    /*
+        기본형 컬럼 조회 (박싱 없음)
+        - 첫 번째 컬럼을 rs.getLong / getInt / getDouble 로 읽고, NULL 은 selectLongs() 처럼 건너뛴다.
+        - 배열을 두 배씩 늘려가며 채운 뒤 크기에 맞게 잘라 반환
+     */
+    public long[] selectLongArray() {
+        return query("longArray", null, rs -> {
+            long[] values = new long[INITIAL_ARRAY_CAPACITY];
+            int size = 0;
+
+            while (rs.next()) {
+                long value = rs.getLong(1);
+                if (rs.wasNull()) continue;
+
+                if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                values[size++] = value;
+            }
+
+            return Arrays.copyOf(values, size);
+        });
+    }
+
+    public int[] selectIntArray() {
+        return query("intArray", null, rs -> {
+            int[] values = new int[INITIAL_ARRAY_CAPACITY];
+            int size = 0;
+
+            while (rs.next()) {
+                int value = rs.getInt(1);
+                if (rs.wasNull()) continue;
+
+                if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                values[size++] = value;
+            }
+
+            return Arrays.copyOf(values, size);
+        });
+    }
+
+    public double[] selectDoubleArray() {
+        return query("doubleArray", null, rs -> {
+            double[] values = new double[INITIAL_ARRAY_CAPACITY];
+            int size = 0;
+
+            while (rs.next()) {
+                double value = rs.getDouble(1);
+                if (rs.wasNull()) continue;
+
+                if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                values[size++] = value;
+            }
+
+            return Arrays.copyOf(values, size);
+        });
+    }
+
+    // 결과가 없거나 NULL 이면 defaultValue
+    public long selectLongOr(long defaultValue) {
+        return query("longOr", defaultValue, rs -> {
+            if (!rs.next()) return defaultValue;
+
+            long value = rs.getLong(1);
+            return rs.wasNull() ? defaultValue : value;
+        });
+    }
+
+    public int selectIntOr(int defaultValue) {
+        return query("intOr", defaultValue, rs -> {
+            if (!rs.next()) return defaultValue;
+
+            int value = rs.getInt(1);
+            return rs.wasNull() ? defaultValue : value;
+        });
+    }
+
+    public double selectDoubleOr(double defaultValue) {
+        return query("doubleOr", defaultValue, rs -> {
+            if (!rs.next()) return defaultValue;
+
+            double value = rs.getDouble(1);
+            return rs.wasNull() ? defaultValue : value;
+        });
+    }
+
+    /*
+        비동기 실행 (가상 스레드, SimpleDb 의 asyncMaxConcurrency 개까지 동시 실행)
+        - 다른 스레드에서 실행되므로 호출한 스레드의 트랜잭션에는 포함되지 않는다.
+        - 실행을 맡긴 뒤에는 이 Sql 을 더 수정하지 않아야 한다.
+        ex) CompletableFuture<Long> count = sql.async(Sql::selectLong);
+     */
+    public <R> CompletableFuture<R> async(Function<Sql, R> terminal) {
+        return simpleDb.supplyAsync(() -> terminal.apply(this));
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> selectRowsAsync() {
+        return async(Sql::selectRows);
+    }
+
+    public <T> CompletableFuture<List<T>> selectRowsAsync(Class<T> clazz) {
+        return async(sql -> sql.selectRows(clazz));
+    }
+
+    public <T> CompletableFuture<T> selectRowAsync(Class<T> clazz) {
+        return async(sql -> sql.selectRow(clazz));
+    }
+
+    public CompletableFuture<Long> selectLongAsync() {
+        return async(Sql::selectLong);
+    }
+
+    /*
+        결과를 한 번에 메모리에 올리지 않고 한 행씩 읽는 스트림
+        - MySQL 행 단위 스트리밍 (fetchSize = Integer.MIN_VALUE) 사용
+        - 반드시 닫아야 한다: try (Stream<Article> articles = sql.stream(Article.class)) { ... }
+        - 트랜잭션 밖이면 풀에서 스트림 전용 커넥션을 따로 빌리고, 닫힐 때 돌려준다.
+          (스트리밍 중인 커넥션에서는 다른 쿼리를 실행할 수 없기 때문)
+     */
+    public <T> Stream<T> stream(Class<T> clazz) {
+        return openStream(meta -> RowMappers.of(clazz, meta));
+    }
+
+    public Stream<Map<String, Object>> stream() {
+        return openStream(Sql::mapRowMapper);
+    }
+
+    public <T> void forEachRow(Class<T> clazz, Consumer<? super T> action) {
+        try (Stream<T> rows = stream(clazz)) {
+            rows.forEach(action);
+        }
+    }
+
+    public void forEachRow(Consumer<? super Map<String, Object>> action) {
+        try (Stream<Map<String, Object>> rows = stream()) {
+            rows.forEach(action);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowMapperFactory<T> {
+        RowMapper<T> create(ResultSetMetaData meta) throws SQLException;
+    }
+
+    private <T> Stream<T> openStream(RowMapperFactory<T> mapperFactory) {
+        ConnectionPool pool = simpleDb.getPool();
+        String sql = getSql();
+        long start = System.nanoTime();
+        PooledConnection lease = null;
+        ReplicaRouter.Lease replica = null;
+        PreparedStatement ps = null;
+
         try {
-            Connection conn = simpleDb.getConnection();
-            try (PreparedStatement ps = conn.prepareStatement(getSql())) {
-                bindParams(ps);
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
-                        Object value = rs.getObject(1);
-                        if (value instanceof Number num) {
-                            results.add(num.longValue());
-                        }
-                    }
+            Connection conn;
+            if (simpleDb.isInTransaction()) {
+                conn = simpleDb.getConnection();
+            } else if ((replica = simpleDb.borrowReplica()) != null) {
+                conn = replica.connection().getConnection();
+            } else {
+                lease = pool.borrow();
+                conn = lease.getConnection();
+            }
+
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(simpleDb.getDialect().getStreamingFetchSize()); // MySQL 은 Integer.MIN_VALUE (한 행씩 받아오기)
+            bindParams(ps, sql);
+            long prepared = System.nanoTime();
+
+            ResultSet rs = ps.executeQuery();
+            long executed = System.nanoTime();
+            RowMapper<T> mapper;
+            try {
+                mapper = mapperFactory.create(rs.getMetaData());
+            } catch (SQLException | RuntimeException e) {
+                rs.close();
+                throw e;
+            }
+
+            PooledConnection leased = lease;
+            ReplicaRouter.Lease leasedReplica = replica;
+            ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(rs, ps, mapper, (rows, fetchNanos, mappingNanos, error) -> {
+                if (leased != null) pool.release(leased);
+                if (leasedReplica != null) leasedReplica.release();
+
+                // 실행 시간 = executeQuery + 행마다 rs.next() 로 읽어 온 시간 (호출한 쪽이 행을 처리한 시간은 빠진다)
+                if (error == null) {
+                    simpleDb.recordExecution(sql, params, prepared - start, executed - prepared + fetchNanos, mappingNanos, rows);
+                } else {
+                    simpleDb.recordFailure(sql, params, System.nanoTime() - start, error);
+                }
+            });
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        } catch (SQLException | RuntimeException e) {
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException ignore) {
+                    // 원래 예외를 던지는 것이 우선
                 }
             }
-        } catch (SQLException e) {
+            if (lease != null) pool.release(lease);
+            if (replica != null) replica.release();
+            simpleDb.recordFailure(sql, params, System.nanoTime() - start, e);
+
+            if (e instanceof RuntimeException re) throw re;
             throw new RuntimeException(e);
         }
-        return results;
     }
 
 }
@@ -0,0 +1,12 @@
+package com.back;
+
+// 실행된 SQL 1건의 로그 (문자열 만들기는 로그 쓰는 스레드에서 한다, 실패한 실행이면 error 에 예외)
+public record SqlLogEvent(String sql, Object[] params, long durationNanos, long timestampMillis, String threadName, Throwable error) {
+    public SqlLogEvent(String sql, Object[] params, long durationNanos, long timestampMillis, String threadName) {
+        this(sql, params, durationNanos, timestampMillis, threadName, null);
+    }
+
+    public boolean failed() {
+        return error != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.back;
+
+// SQL 실행 로그를 받는 곳 (SimpleDb.setSqlLogger 로 교체 가능)
+public interface SqlLogger {
+    // 이번 실행을 기록할지 (샘플링/속도 제한). false 면 이벤트를 만들지도 않는다.
+    default boolean shouldLog() {
+        return true;
+    }
+
+    void log(SqlLogEvent event);
+
+    default void close() {
+    }
+}
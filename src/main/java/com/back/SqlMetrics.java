@@ -0,0 +1,97 @@
+package com.back;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/*
+    SQL 모양별 실행 통계 모음
+    - 준비/실행/매핑 시간을 따로 기록하고, 반환·영향 행 수와 에러 수를 센다.
+    - slowQueryThresholdMs 이상 걸린 쿼리는 경고 로그를 남긴다. (0 이하면 끔)
+    - 모양 수는 maxShapes 개까지만 따로 세고, 넘치면 OTHER_SQL 하나로 합친다.
+ */
+@Slf4j
+public class SqlMetrics {
+    public static final String OTHER_SQL = "(other)";
+
+    private final Map<String, QueryStats> statsBySql = new ConcurrentHashMap<>();
+    private final List<Consumer<QueryStats>> newShapeListeners = new CopyOnWriteArrayList<>();
+
+    @Getter
+    @Setter
+    private volatile boolean enabled = true;
+    @Getter
+    @Setter
+    private volatile long slowQueryThresholdMs = 1_000;
+    @Getter
+    @Setter
+    private volatile int maxShapes = 1_000;
+
+    public void record(String sql, long prepareNanos, long executeNanos, long mappingNanos, long rows) {
+        if (!enabled) return;
+
+        QueryStats stats = stats(sql);
+        stats.getPrepare().record(prepareNanos);
+        stats.getExecute().record(executeNanos);
+        stats.getMapping().record(mappingNanos);
+        stats.getRows().add(rows);
+
+        long totalMs = (prepareNanos + executeNanos + mappingNanos) / 1_000_000;
+        if (slowQueryThresholdMs > 0 && totalMs >= slowQueryThresholdMs) {
+            log.warn("느린 쿼리 {}ms (준비 {}ms, 실행 {}ms, 매핑 {}ms, {}행): {}",
+                    totalMs, prepareNanos / 1_000_000, executeNanos / 1_000_000, mappingNanos / 1_000_000, rows, sql);
+        }
+    }
+
+    public void recordError(String sql) {
+        if (!enabled) return;
+
+        stats(sql).getErrors().increment();
+    }
+
+    public Collection<QueryStats> getAll() {
+        return statsBySql.values();
+    }
+
+    // 수집용 (Actuator 엔드포인트 등에서 그대로 직렬화해 쓸 수 있는 값)
+    public List<QueryStats.Snapshot> snapshot() {
+        return statsBySql.values().stream()
+                .map(QueryStats::snapshot)
+                .toList();
+    }
+
+    public void reset() {
+        statsBySql.clear();
+    }
+
+    // 새 SQL 모양이 생길 때마다 호출 (Micrometer 등록용)
+    public void addNewShapeListener(Consumer<QueryStats> listener) {
+        newShapeListeners.add(listener);
+    }
+
+    private QueryStats stats(String sql) {
+        QueryStats stats = statsBySql.get(sql);
+        if (stats != null) return stats;
+
+        String key = statsBySql.size() >= maxShapes ? OTHER_SQL : sql;
+        boolean[] created = new boolean[1];
+        stats = statsBySql.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new QueryStats(k);
+        });
+
+        if (created[0]) {
+            for (Consumer<QueryStats> listener : newShapeListeners) {
+                listener.accept(stats);
+            }
+        }
+        return stats;
+    }
+}
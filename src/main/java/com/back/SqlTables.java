@@ -0,0 +1,99 @@
+package com.back;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+    SQL 문자열에서 참조하는 테이블 이름 추출 (결과 캐시 무효화용, 간단한 토큰 기반)
+    - FROM / JOIN / INTO / UPDATE / TABLE / TRUNCATE 바로 뒤의 이름
+    - FROM a x, b y 처럼 콤마로 나열된 테이블
+    - 테이블을 못 찾으면 빈 배열 (→ 쓰기면 전체 무효화, 읽기면 캐시 안 함)
+    - 넉넉하게 잡는 쪽으로 틀린다. (테이블이 아닌 이름이 섞여도 무효화가 조금 잦아질 뿐)
+ */
+final class SqlTables {
+    // 문자열 리터럴 | `이름` | 이름 | 괄호/콤마
+    private static final Pattern TOKEN = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'|`[^`]+`|[\\w$.]+|[(),]");
+
+    private static final Set<String> TABLE_PREFIXES = Set.of("FROM", "JOIN", "INTO", "UPDATE", "TABLE", "TRUNCATE");
+    private static final Set<String> SKIPPED_AFTER_PREFIX = Set.of("IF", "NOT", "EXISTS", "LOW_PRIORITY", "IGNORE", "QUICK", "ONLY");
+    private static final Set<String> LIST_END = Set.of(
+            "WHERE", "SET", "ON", "USING", "GROUP", "ORDER", "LIMIT", "HAVING", "UNION", "VALUES", "VALUE",
+            "SELECT", "WINDOW", "FOR", "LOCK", "LEFT", "RIGHT", "INNER", "OUTER", "CROSS", "NATURAL", "STRAIGHT_JOIN"
+    );
+
+    // 실행할 때마다 결과가 달라지는 함수가 있으면 결과를 캐시하면 안 됨
+    private static final Pattern NON_DETERMINISTIC = Pattern.compile(
+            "\\b(?:NOW|SYSDATE|CURDATE|CURTIME|CURRENT_DATE|CURRENT_TIME|CURRENT_TIMESTAMP|UTC_DATE|UTC_TIME|UTC_TIMESTAMP|UNIX_TIMESTAMP|RAND|UUID|UUID_SHORT|LAST_INSERT_ID|CONNECTION_ID|FOUND_ROWS|ROW_COUNT|SLEEP)\\b",
+            Pattern.CASE_INSENSITIVE
+    );
+    private static final Pattern LOCKING_READ = Pattern.compile("\\bFOR\\s+UPDATE\\b|\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final int MAX_PARSED = 10_000;
+    private static final Map<String, String[]> parsed = new ConcurrentHashMap<>();
+
+    private SqlTables() {
+    }
+
+    static String[] of(String sql) {
+        String[] tables = parsed.get(sql);
+        if (tables != null) return tables;
+
+        tables = parse(sql);
+        if (parsed.size() < MAX_PARSED) parsed.put(sql, tables);
+        return tables;
+    }
+
+    static boolean isCacheableRead(String sql) {
+        return !NON_DETERMINISTIC.matcher(sql).find() && !LOCKING_READ.matcher(sql).find();
+    }
+
+    private static String[] parse(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        boolean expectTable = false;
+        boolean inTableList = false;
+
+        Matcher m = TOKEN.matcher(sql);
+        while (m.find()) {
+            String token = m.group();
+            if (token.startsWith("'")) {
+                expectTable = false;
+                continue;
+            }
+
+            String upper = token.toUpperCase(Locale.ROOT);
+
+            if (TABLE_PREFIXES.contains(upper)) {
+                expectTable = true;
+                inTableList = upper.equals("FROM") || upper.equals("UPDATE");
+            } else if (token.equals(",")) {
+                if (inTableList) expectTable = true;
+            } else if (token.equals("(") || token.equals(")")) {
+                // 서브쿼리 / 컬럼 목록 → 안쪽 FROM 은 따로 잡힌다
+                expectTable = false;
+                inTableList = false;
+            } else if (expectTable && SKIPPED_AFTER_PREFIX.contains(upper)) {
+                // IF NOT EXISTS 등은 건너뛰고 계속 테이블 이름을 기다린다
+            } else if (LIST_END.contains(upper)) {
+                expectTable = false;
+                inTableList = false;
+            } else if (expectTable) {
+                tables.add(normalize(token));
+                expectTable = false;
+            }
+        }
+
+        return tables.toArray(String[]::new);
+    }
+
+    // `db`.`table` → table, 대소문자 무시
+    private static String normalize(String name) {
+        String unquoted = name.replace("`", "");
+        int dot = unquoted.lastIndexOf('.');
+        return (dot < 0 ? unquoted : unquoted.substring(dot + 1)).toLowerCase(Locale.ROOT);
+    }
+}
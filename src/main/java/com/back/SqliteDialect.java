@@ -0,0 +1,49 @@
+package com.back;
+
+import java.util.List;
+
+/*
+    SQLite
+    - dbName 은 파일 경로, ":memory:" 면 커넥션끼리 공유하는 메모리 DB
+    - host / ConnectionProperties 는 쓰지 않는다.
+    - boolean 은 0 / 1 정수로 저장된다. (매핑할 때 ValueConverters 가 boolean 으로 바꿈)
+ */
+public class SqliteDialect implements Dialect {
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "org.sqlite.JDBC";
+    }
+
+    @Override
+    public String jdbcUrl(String host, String dbName, ConnectionProperties properties) {
+        if (dbName.equals(":memory:")) return "jdbc:sqlite:file::memory:?cache=shared";
+        return "jdbc:sqlite:" + dbName;
+    }
+
+    // TRUNCATE 가 없으므로 DELETE (id 가 INTEGER PRIMARY KEY 면 빈 테이블의 다음 id 는 1 부터)
+    @Override
+    public List<String> truncateSql(String table) {
+        return List.of("DELETE FROM " + table);
+    }
+
+    @Override
+    public int getStreamingFetchSize() {
+        return 100;
+    }
+
+    // 다중 행 INSERT 도 마지막 rowid 하나만 돌려준다
+    @Override
+    public boolean returnsAllGeneratedKeys() {
+        return false;
+    }
+
+    @Override
+    public String getBooleanType() {
+        return "INTEGER";
+    }
+}
@@ -0,0 +1,128 @@
+package com.back;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    커넥션 1개에 딸린 PreparedStatement LRU 캐시
+    - 키: SQL 문자열 + 생성키 반환 여부
+    - 커넥션은 한 번에 한 스레드만 쓰므로 동기화하지 않는다.
+    - 가장 오래 안 쓴 statement 부터 밀려나며, 밀려난 statement 는 닫는다.
+ */
+public class StatementCache {
+    private record Key(String sql, boolean returnGeneratedKeys) {
+    }
+
+    private final Connection connection;
+    private final int maxSize;
+    private final StatementCacheStats stats;
+    private final LinkedHashMap<Key, PreparedStatement> cached;
+    // statement → 캐시 키 (캐시에 남아있는지 확인용)
+    private final Map<PreparedStatement, Key> keysByStatement = new IdentityHashMap<>();
+    // 사용 중인 statement (캐시에서 밀려나도 반납 전까지는 닫지 않음)
+    private final Map<PreparedStatement, Boolean> inUse = new IdentityHashMap<>();
+
+    StatementCache(Connection connection, int maxSize, StatementCacheStats stats) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.cached = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) return false;
+
+                PreparedStatement ps = eldest.getValue();
+                keysByStatement.remove(ps);
+                StatementCache.this.stats.recordEviction();
+                if (!inUse.containsKey(ps)) closeQuietly(ps);
+                return true;
+            }
+        };
+    }
+
+    // 다 쓴 뒤에는 반드시 release() 로 돌려줘야 한다.
+    public PreparedStatement prepare(String sql, boolean returnGeneratedKeys) throws SQLException {
+        if (maxSize <= 0) {
+            stats.recordMiss();
+            return markInUse(create(sql, returnGeneratedKeys));
+        }
+
+        Key key = new Key(sql, returnGeneratedKeys);
+        PreparedStatement ps = cached.get(key);
+
+        if (ps != null && !ps.isClosed()) {
+            // 같은 SQL 이 이미 사용 중이면 (예: 결과를 읽는 도중 같은 쿼리 실행) 캐시 밖에서 새로 만든다
+            if (inUse.containsKey(ps)) {
+                stats.recordMiss();
+                return markInUse(create(sql, returnGeneratedKeys));
+            }
+            stats.recordHit();
+            return markInUse(ps);
+        }
+
+        if (ps != null) {
+            cached.remove(key);
+            keysByStatement.remove(ps);
+        }
+
+        stats.recordMiss();
+        ps = create(sql, returnGeneratedKeys);
+        cached.put(key, ps);
+        keysByStatement.put(ps, key);
+        return markInUse(ps);
+    }
+
+    // 캐시에 남아있으면 파라미터만 지우고 보관, 아니면 닫는다.
+    public void release(PreparedStatement ps) {
+        inUse.remove(ps);
+
+        Key key = keysByStatement.get(ps);
+        if (key == null) {
+            closeQuietly(ps);
+            return;
+        }
+
+        try {
+            ps.clearParameters();
+        } catch (SQLException e) {
+            cached.remove(key);
+            keysByStatement.remove(ps);
+            closeQuietly(ps);
+        }
+    }
+
+    public int size() {
+        return cached.size();
+    }
+
+    void closeAll() {
+        cached.values().forEach(StatementCache::closeQuietly);
+        cached.clear();
+        keysByStatement.clear();
+        inUse.clear();
+    }
+
+    private PreparedStatement create(String sql, boolean returnGeneratedKeys) throws SQLException {
+        return returnGeneratedKeys
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+    }
+
+    private PreparedStatement markInUse(PreparedStatement ps) {
+        inUse.put(ps, Boolean.TRUE);
+        return ps;
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignore) {
+            // 커넥션이 이미 끊겼으면 무시
+        }
+    }
+}
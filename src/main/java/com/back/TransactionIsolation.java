@@ -0,0 +1,22 @@
+package com.back;
+
+import java.sql.Connection;
+
+// 트랜잭션 격리 수준 (DEFAULT 면 커넥션의 현재 설정을 그대로 씀)
+public enum TransactionIsolation {
+    DEFAULT(-1),
+    READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+    private final int jdbcLevel;
+
+    TransactionIsolation(int jdbcLevel) {
+        this.jdbcLevel = jdbcLevel;
+    }
+
+    int getJdbcLevel() {
+        return jdbcLevel;
+    }
+}
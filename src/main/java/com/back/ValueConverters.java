@@ -0,0 +1,81 @@
+package com.back;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.function.Function;
+
+// JDBC 가 돌려준 값을 필드/파라미터 타입에 맞게 바꾸는 변환기 (타입별로 한 번만 골라서 재사용)
+final class ValueConverters {
+    private ValueConverters() {
+    }
+
+    static Function<Object, Object> to(Class<?> type) {
+        Class<?> target = wrap(type);
+
+        if (target == Long.class) return v -> v instanceof Number n ? (Object) n.longValue() : v;
+        if (target == Integer.class) return v -> v instanceof Number n ? (Object) n.intValue() : v;
+        if (target == Short.class) return v -> v instanceof Number n ? (Object) n.shortValue() : v;
+        if (target == Byte.class) return v -> v instanceof Number n ? (Object) n.byteValue() : v;
+        if (target == Double.class) return v -> v instanceof Number n ? (Object) n.doubleValue() : v;
+        if (target == Float.class) return v -> v instanceof Number n ? (Object) n.floatValue() : v;
+        if (target == BigDecimal.class) return v -> v instanceof Number n && !(v instanceof BigDecimal) ? new BigDecimal(n.toString()) : v;
+        if (target == BigInteger.class) return v -> v instanceof Number n && !(v instanceof BigInteger) ? new BigInteger(n.toString()) : v;
+        if (target == Boolean.class) return ValueConverters::toBoolean;
+        if (target == String.class) return v -> v instanceof String ? v : String.valueOf(v);
+        if (target == LocalDateTime.class) return v -> v instanceof Timestamp ts ? ts.toLocalDateTime() : v;
+        if (target == LocalDate.class) return v -> {
+            if (v instanceof java.sql.Date d) return d.toLocalDate();
+            if (v instanceof Timestamp ts) return ts.toLocalDateTime().toLocalDate();
+            if (v instanceof LocalDateTime ldt) return ldt.toLocalDate();
+            return v;
+        };
+        if (target == LocalTime.class) return v -> v instanceof Time t ? t.toLocalTime() : v;
+        if (target.isEnum()) return v -> v instanceof String s ? toEnum(target, s) : v;
+
+        // Object 등 그 외 타입은 날짜만 LocalDateTime 으로 맞춰준다
+        return v -> v instanceof Timestamp ts ? ts.toLocalDateTime() : v;
+    }
+
+    static Object toBoolean(Object value) {
+        if (value instanceof Boolean) return value;
+        if (value instanceof Number num) return num.intValue() != 0; // 1 → true, 0 → false
+        if (value instanceof String s) return s.equals("1") || s.equalsIgnoreCase("true");
+        return value;
+    }
+
+    // 기본형이면 null 대신 넣을 기본값
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        return 0;
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) return type;
+        if (type == long.class) return Long.class;
+        if (type == int.class) return Integer.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == double.class) return Double.class;
+        if (type == float.class) return Float.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        if (type == char.class) return Character.class;
+        return Void.class;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object toEnum(Class<?> enumType, String name) {
+        return Enum.valueOf((Class<? extends Enum>) enumType, name);
+    }
+}
@@ -1,23 +1,46 @@
 package com.back.simpleDb;
 
 import com.back.Article;
+import com.back.BatchSql;
+import com.back.CompiledSql;
+import com.back.ConnectionPool;
+import com.back.ConnectionProperties;
+import com.back.Dialect;
+import com.back.KeysetPage;
+import com.back.PooledConnection;
+import com.back.QueryResultCache;
+import com.back.QueryStats;
+import com.back.ReplicaRouter;
 import com.back.SimpleDb;
 import com.back.Sql;
+import com.back.SqlLogEvent;
+import com.back.StatementCacheStats;
+import com.back.TransactionIsolation;
 import org.junit.jupiter.api.*;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @TestMethodOrder(MethodOrderer.MethodName.class)
 public class SimpleDbTest {
@@ -536,4 +559,900 @@ public class SimpleDbTest {
 
         assertThat(newCount).isEqualTo(oldCount + 1);
     }
+
+    @Test
+    @DisplayName("run 은 스레드의 커넥션을 닫지 않고 재사용")
+    public void t020() {
+        long oldCreatedCount = simpleDb.getPool().getCreatedCount();
+
+        IntStream.rangeClosed(1, 100).forEach(i ->
+                simpleDb.run("UPDATE article SET modifiedDate = NOW() WHERE id = ?", 1)
+        );
+
+        // 같은 스레드의 커넥션을 계속 쓰므로 새 물리 연결이 없어야 함
+        assertThat(simpleDb.getPool().getCreatedCount()).isEqualTo(oldCreatedCount);
+    }
+
+    @Test
+    @DisplayName("run 은 진행 중인 트랜잭션을 깨지 않음")
+    public void t021() {
+        long oldCount = simpleDb.genSql()
+                .append("SELECT COUNT(*)")
+                .append("FROM article")
+                .selectLong();
+
+        simpleDb.startTransaction();
+
+        simpleDb.run("""
+                INSERT INTO article
+                SET createdDate = NOW(),
+                modifiedDate = NOW(),
+                title = ?,
+                `body` = ?
+                """, "새 제목", "새 내용");
+
+        simpleDb.rollback();
+
+        long newCount = simpleDb.genSql()
+                .append("SELECT COUNT(*)")
+                .append("FROM article")
+                .selectLong();
+
+        assertThat(newCount).isEqualTo(oldCount);
+    }
+
+    @Test
+    @DisplayName("같은 SQL 은 캐시된 PreparedStatement 재사용")
+    public void t022() {
+        StatementCacheStats stats = simpleDb.getPool().getStatementCacheStats();
+
+        simpleDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+
+        long oldHitCount = stats.getHitCount();
+        long oldMissCount = stats.getMissCount();
+
+        String title = simpleDb.genSql().append("SELECT title FROM article WHERE id = ?", 2).selectString();
+
+        assertThat(title).isEqualTo("제목2");
+        assertThat(stats.getHitCount()).isEqualTo(oldHitCount + 1);
+        assertThat(stats.getMissCount()).isEqualTo(oldMissCount);
+    }
+
+    public record ArticleRecord(long id, String title, String body, LocalDateTime createdDate, boolean isBlind) {
+    }
+
+    @Test
+    @DisplayName("selectRows, record")
+    public void t023() {
+        Sql sql = simpleDb.genSql();
+        /*
+        == rawSql ==
+        SELECT *
+        FROM article
+        ORDER BY id ASC
+        LIMIT 3
+        */
+        sql.append("SELECT * FROM article ORDER BY id ASC LIMIT 3");
+        List<ArticleRecord> articleRecords = sql.selectRows(ArticleRecord.class);
+
+        assertThat(articleRecords).hasSize(3);
+
+        IntStream.range(0, articleRecords.size()).forEach(i -> {
+            long id = i + 1;
+
+            ArticleRecord article = articleRecords.get(i);
+
+            assertThat(article.id()).isEqualTo(id);
+            assertThat(article.title()).isEqualTo("제목%d".formatted(id));
+            assertThat(article.body()).isEqualTo("내용%d".formatted(id));
+            assertThat(article.createdDate()).isNotNull();
+            assertThat(article.isBlind()).isEqualTo(false);
+        });
+    }
+
+    @Test
+    @DisplayName("stream, 한 행씩 읽고 닫으면 커넥션 반납")
+    public void t024() {
+        int oldActiveCount = simpleDb.getPool().getActiveCount();
+
+        Sql sql = simpleDb.genSql()
+                .append("SELECT * FROM article")
+                .append("WHERE isBlind = ?", false)
+                .append("ORDER BY id ASC");
+
+        try (Stream<Article> articles = sql.stream(Article.class)) {
+            List<Long> ids = articles.map(Article::getId).toList();
+
+            assertThat(ids).containsExactly(1L, 2L, 3L);
+        }
+
+        assertThat(simpleDb.getPool().getActiveCount()).isEqualTo(oldActiveCount);
+
+        AtomicInteger count = new AtomicInteger();
+        simpleDb.genSql()
+                .append("SELECT * FROM article")
+                .forEachRow(row -> count.incrementAndGet());
+
+        assertThat(count.get()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("batch insert")
+    public void t025() {
+        BatchSql batch = simpleDb.genBatch("""
+                INSERT INTO article
+                SET createdDate = NOW(),
+                modifiedDate = NOW(),
+                title = ?,
+                `body` = ?
+                """).chunkSize(4);
+
+        IntStream.rangeClosed(7, 16).forEach(no ->
+                batch.add("제목%d".formatted(no), "내용%d".formatted(no))
+        );
+
+        long[] newIds = batch.insert();
+
+        assertThat(newIds).hasSize(10);
+        assertThat(newIds[0]).isEqualTo(7L);
+        assertThat(newIds[9]).isEqualTo(16L);
+
+        long count = simpleDb.genSql()
+                .append("SELECT COUNT(*)")
+                .append("FROM article")
+                .selectLong();
+
+        assertThat(count).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("selectLongArray, selectLongOr")
+    public void t026() {
+        Long[] ids = new Long[]{2L, 1L, 3L};
+
+        long[] foundIds = simpleDb.genSql()
+                .append("SELECT id")
+                .append("FROM article")
+                .appendIn("WHERE id IN (?)", ids)
+                .appendIn("ORDER BY FIELD (id, ?)", ids)
+                .selectLongArray();
+
+        assertThat(foundIds).containsExactly(2L, 1L, 3L);
+
+        long notFoundId = simpleDb.genSql()
+                .append("SELECT id")
+                .append("FROM article")
+                .append("WHERE id = ?", 0)
+                .selectLongOr(-1L);
+
+        assertThat(notFoundId).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("selectRowsAsync, 가상 스레드에서 동시 실행")
+    public void t027() {
+        List<CompletableFuture<Article>> futures = LongStream.rangeClosed(1, 100)
+                .mapToObj(i -> simpleDb.genSql()
+                        .append("SELECT * FROM article WHERE id = ?", i % 6 + 1)
+                        .selectRowAsync(Article.class))
+                .toList();
+
+        List<Article> articles = futures.stream().map(CompletableFuture::join).toList();
+
+        assertThat(articles)
+                .extracting(Article::getId)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 100).map(i -> i % 6 + 1).boxed().toList());
+        assertThat(simpleDb.getPool().getTotalCount()).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("metrics, SQL 모양별 실행 통계")
+    public void t028() {
+        String rawSql = "SELECT * FROM article WHERE id <= ? ORDER BY id ASC";
+
+        simpleDb.genSql().append(rawSql, 3).selectRows();
+        simpleDb.genSql().append(rawSql, 2).selectRows();
+
+        QueryStats.Snapshot snapshot = simpleDb.getMetrics().snapshot().stream()
+                .filter(s -> s.sql().equals(rawSql))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(snapshot.calls()).isGreaterThanOrEqualTo(2);
+        assertThat(snapshot.rows()).isGreaterThanOrEqualTo(5);
+        assertThat(snapshot.execute().maxNanos()).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("SqlLogger, 실행된 SQL 과 파라미터 전달")
+    public void t029() {
+        List<SqlLogEvent> events = new CopyOnWriteArrayList<>();
+        simpleDb.setSqlLogger(events::add);
+
+        try {
+            simpleDb.genSql()
+                    .append("SELECT title FROM article WHERE id = ?", 1)
+                    .selectString();
+        } finally {
+            simpleDb.setSqlLogger(null);
+        }
+
+        assertThat(events).hasSize(1);
+        assertThat(events.getFirst().sql()).isEqualTo("SELECT title FROM article WHERE id = ?");
+        assertThat(events.getFirst().params()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("결과 캐시, 같은 조회는 캐시에서 읽고 쓰기 후에는 다시 조회")
+    public void t030() {
+        simpleDb.setResultCacheEnabled(true);
+
+        try {
+            QueryResultCache cache = simpleDb.getResultCache();
+            long hitsBefore = cache.getHitCount();
+
+            String title1 = simpleDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+            String title2 = simpleDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+
+            assertThat(title2).isEqualTo(title1);
+            assertThat(cache.getHitCount()).isEqualTo(hitsBefore + 1);
+
+            simpleDb.genSql()
+                    .append("UPDATE article SET title = ? WHERE id = ?", "캐시 무효화", 1)
+                    .update();
+
+            String title3 = simpleDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+
+            assertThat(title3).isEqualTo("캐시 무효화");
+        } finally {
+            simpleDb.setResultCacheEnabled(false);
+        }
+    }
+
+    @Test
+    @DisplayName("findById, findByIds, 1차 캐시 범위 안에서는 같은 인스턴스")
+    public void t031() {
+        simpleDb.withIdentityMap(() -> {
+            Article article1 = simpleDb.findById(Article.class, 1);
+            Article article2 = simpleDb.findById(Article.class, 1L);
+
+            assertThat(article2).isSameAs(article1);
+
+            List<Article> articles = simpleDb.findByIds(Article.class, List.of(3L, 1L, 100L, 2L));
+
+            assertThat(articles).extracting(Article::getId).containsExactly(3L, 1L, 2L);
+            assertThat(articles.get(1)).isSameAs(article1);
+            return null;
+        });
+
+        assertThat(simpleDb.getIdentityMap()).isNull();
+    }
+
+    @Test
+    @DisplayName("replica, 트랜잭션 밖의 조회는 replica 로, 쓰기 직후 조회는 primary 로")
+    public void t032() throws InterruptedException {
+        SimpleDb routedDb = new SimpleDb("localhost", "root", "wjdgh01!!", "simpleDb__test");
+        routedDb.setReplicaHosts(List.of("localhost:3306"));
+        routedDb.setReadYourWritesWindowMs(200);
+
+        try {
+            ReplicaRouter.Replica replica = routedDb.getReplicaRouter().getReplicas().getFirst();
+
+            // 쓰기 전: replica 로
+            long count = routedDb.genSql().append("SELECT COUNT(*) FROM article").selectLong();
+
+            assertThat(count).isEqualTo(6);
+            assertThat(replica.getBorrowCount()).isEqualTo(1);
+
+            // 쓰기 직후: primary 로
+            routedDb.genSql()
+                    .append("UPDATE article SET title = ? WHERE id = ?", "replica", 1)
+                    .update();
+
+            String title = routedDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+
+            assertThat(title).isEqualTo("replica");
+            assertThat(replica.getBorrowCount()).isEqualTo(1);
+
+            // readYourWritesWindowMs 가 지나면 다시 replica 로
+            Thread.sleep(300);
+            routedDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+
+            assertThat(replica.getBorrowCount()).isEqualTo(2);
+        } finally {
+            routedDb.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("appendValues, insertAll, 다중 행 INSERT 후 생성된 id 전체 반환")
+    public void t033() {
+        List<Article> articles = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> {
+                    Article article = new Article();
+                    article.setTitle("다중 행 " + i);
+                    article.setBody("내용 " + i);
+                    return article;
+                })
+                .toList();
+
+        long[] ids = simpleDb.genSql()
+                .append("INSERT INTO article (createdDate, modifiedDate, title, `body`)")
+                .appendValues(articles, a -> new Object[]{LocalDateTime.now(), LocalDateTime.now(), a.getTitle(), a.getBody()})
+                .insertAll();
+
+        assertThat(ids).containsExactly(7, 8, 9, 10, 11);
+
+        long count = simpleDb.genSql().append("SELECT COUNT(*) FROM article").selectLong();
+        assertThat(count).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("appendIn, IN 목록은 2의 거듭제곱 길이로 채움")
+    public void t034() {
+        Sql sql = simpleDb.genSql()
+                .append("SELECT COUNT(*)")
+                .append("FROM article")
+                .appendIn("WHERE id IN (?)", 1, 2, 3);
+
+        assertThat(sql.getSql()).isEqualTo("SELECT COUNT(*) FROM article WHERE id IN (?, ?, ?, ?)");
+        assertThat(sql.getParams()).containsExactly(1, 2, 3, 3);
+        assertThat(sql.selectLong()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("ConnectionProperties, highThroughput 프로필로 같은 결과")
+    public void t035() {
+        SimpleDb fastDb = new SimpleDb("localhost", "root", "wjdgh01!!", "simpleDb__test");
+        fastDb.setConnectionProperties(ConnectionProperties.highThroughput());
+
+        try {
+            fastDb.startTransaction();
+            fastDb.genSql()
+                    .append("UPDATE article SET title = ? WHERE id = ?", "프로필", 1)
+                    .update();
+            fastDb.commit();
+
+            String title = fastDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+            long count = fastDb.genSql().append("SELECT COUNT(*) FROM article").selectLong();
+
+            assertThat(title).isEqualTo("프로필");
+            assertThat(count).isEqualTo(6);
+        } finally {
+            fastDb.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Dialect, 내장 H2 로 같은 Sql API 사용")
+    public void t036() {
+        SimpleDb h2Db = SimpleDb.embedded(Dialect.H2, "simpleDb__t036");
+
+        try {
+            h2Db.run("DROP TABLE IF EXISTS article");
+            h2Db.run("""
+                    CREATE TABLE article (
+                        id BIGINT NOT NULL AUTO_INCREMENT,
+                        PRIMARY KEY(id),
+                        createdDate DATETIME NOT NULL,
+                        modifiedDate DATETIME NOT NULL,
+                        title VARCHAR(100) NOT NULL,
+                        `body` VARCHAR(1000) NOT NULL,
+                        isBlind %s NOT NULL
+                    )
+                    """.formatted(h2Db.getDialect().getBooleanType()));
+
+            LocalDateTime createdDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            long id = h2Db.genSql()
+                    .append("INSERT INTO article (createdDate, modifiedDate, title, `body`, isBlind)")
+                    .append("VALUES (?, NOW(), ?, ?, ?)", createdDate, "제목", "내용", true)
+                    .insert();
+
+            assertThat(id).isEqualTo(1);
+
+            // H2 는 컬럼명을 소문자(createddate)로 돌려준다
+            Article article = h2Db.genSql().append("SELECT * FROM article WHERE id = ?", id).selectRow(Article.class);
+
+            assertThat(article.getTitle()).isEqualTo("제목");
+            assertThat(article.getBody()).isEqualTo("내용");
+            assertThat(article.getCreatedDate()).isEqualTo(createdDate);
+            assertThat(article.getModifiedDate()).isNotNull();
+            assertThat(h2Db.genSql().append("SELECT isBlind FROM article WHERE id = ?", id).selectBoolean()).isTrue();
+
+            h2Db.truncate("article");
+            long idAfterTruncate = h2Db.genSql()
+                    .append("INSERT INTO article (createdDate, modifiedDate, title, `body`, isBlind)")
+                    .append("VALUES (NOW(), NOW(), ?, ?, ?)", "제목", "내용", false)
+                    .insert();
+
+            assertThat(idAfterTruncate).isEqualTo(1);
+
+            for (int i = 2; i <= 5; i++) {
+                h2Db.run("INSERT INTO article (createdDate, modifiedDate, title, `body`, isBlind) VALUES (NOW(), NOW(), ?, ?, ?)",
+                        "제목" + i, "내용" + i, false);
+            }
+
+            List<Long> scannedIds;
+            try (Stream<Article> articles = h2Db.scanPartitioned(Article.class, "article", "id").chunkSize(2).stream()) {
+                scannedIds = articles.map(Article::getId).toList();
+            }
+
+            assertThat(scannedIds).containsExactly(1L, 2L, 3L, 4L, 5L);
+        } finally {
+            h2Db.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("inTransaction, 교착 상태면 재시도, 중첩은 savepoint 까지만 롤백")
+    public void t037() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        long count = simpleDb.inTransaction(TransactionIsolation.READ_COMMITTED, () -> {
+            simpleDb.genSql().append("DELETE FROM article WHERE id = ?", 1).delete();
+
+            if (attempts.incrementAndGet() == 1) {
+                throw new RuntimeException(new SQLException("Deadlock found", "40001", 1213));
+            }
+
+            try {
+                simpleDb.inTransaction(() -> {
+                    simpleDb.genSql().append("DELETE FROM article WHERE id = ?", 2).delete();
+                    throw new IllegalStateException("savepoint 까지 롤백");
+                });
+            } catch (IllegalStateException ignore) {
+            }
+
+            return simpleDb.genSql().append("SELECT COUNT(*) FROM article").selectLong();
+        });
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(count).isEqualTo(5);
+        assertThat(simpleDb.isInTransaction()).isFalse();
+        assertThat(simpleDb.genSql().append("SELECT COUNT(*) FROM article").selectLong()).isEqualTo(5);
+
+        long readOnlyCount = simpleDb.inReadOnlyTransaction(TransactionIsolation.REPEATABLE_READ, () ->
+                simpleDb.genSql().append("SELECT COUNT(*) FROM article").selectLong());
+
+        assertThat(readOnlyCount).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("selectPage, iterateByKeyset, 키셋 페이지네이션")
+    public void t038() {
+        Sql sql = simpleDb.genSql().append("SELECT * FROM article WHERE isBlind = ?", false);
+
+        // isBlind = false 인 글은 1 ~ 3
+        KeysetPage<Article> page1 = sql.selectPage(Article.class, null, 2, "id");
+        KeysetPage<Article> page2 = sql.selectPage(Article.class, page1.next(), 2, "id");
+
+        assertThat(page1.items()).extracting(Article::getId).containsExactly(1L, 2L);
+        assertThat(page1.hasNext()).isTrue();
+        assertThat(page2.items()).extracting(Article::getId).containsExactly(3L);
+        assertThat(page2.hasNext()).isFalse();
+
+        List<Long> ids = new ArrayList<>();
+        simpleDb.genSql()
+                .append("SELECT * FROM article")
+                .iterateByKeyset(Article.class, 4, "createdDate DESC", "id DESC")
+                .forEachRemaining(article -> ids.add(article.getId()));
+
+        assertThat(ids).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("scanPartitioned, 키 범위를 나눠 동시에 읽기")
+    public void t039() {
+        List<Long> orderedIds;
+        try (Stream<Article> articles = simpleDb.scanPartitioned(Article.class, "article", "id")
+                .chunkSize(2)
+                .parallelism(3)
+                .stream()) {
+            orderedIds = articles.map(Article::getId).toList();
+        }
+
+        assertThat(orderedIds).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+
+        List<Object> unorderedIds = new CopyOnWriteArrayList<>();
+        simpleDb.scanPartitioned("article", "id")
+                .where("id >= ?", 3)
+                .chunkSize(1)
+                .ordered(false)
+                .forEach(row -> unorderedIds.add(((Number) row.get("id")).longValue()));
+
+        assertThat(unorderedIds).containsExactlyInAnyOrder(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    @DisplayName("compile, 한 번 만든 SQL 템플릿을 파라미터만 바꿔 재사용")
+    public void t040() {
+        CompiledSql findTitle = simpleDb.genSql()
+                .append("SELECT title")
+                .append("FROM article")
+                .append("WHERE id = ?")
+                .compile();
+
+        assertThat(findTitle.getSql()).isEqualTo("SELECT title FROM article WHERE id = ?");
+        assertThat(findTitle.getParamCount()).isEqualTo(1);
+        assertThat(findTitle.bind(1).selectString()).isEqualTo("제목1");
+        assertThat(findTitle.bind(2).selectString()).isEqualTo("제목2");
+    }
+
+    public record Title(String value) {
+    }
+
+    @Test
+    @DisplayName("타입별 파라미터 바인딩, 커스텀 타입 바인더 등록")
+    public void t041() {
+        // JVM 시간대를 서버 시간대(serverTimezone=Asia/Seoul)와 다르게 두고, 그 시간대로 새로 연결
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        SimpleDb zonedDb = new SimpleDb("localhost", "root", "wjdgh01!!", "simpleDb__test");
+
+        try {
+            zonedDb.getParamBinders().register(Title.class, (ps, i, v) -> ps.setString(i, v.value()));
+
+            LocalDateTime createdDate = LocalDateTime.of(2025, 9, 1, 12, 30, 0);
+
+            long id = zonedDb.genSql()
+                    .append("INSERT INTO article")
+                    .append("SET createdDate = ?,", createdDate)
+                    .append("modifiedDate = ?,", createdDate)
+                    .append("title = ?,", new Title("커스텀 제목"))
+                    .append("`body` = ?,", TransactionIsolation.SERIALIZABLE)
+                    .append("isBlind = ?", true)
+                    .insert();
+
+            Article article = zonedDb.genSql().append("SELECT * FROM article WHERE id = ?", id).selectRow(Article.class);
+
+            assertThat(article.getTitle()).isEqualTo("커스텀 제목");
+            assertThat(article.getBody()).isEqualTo("SERIALIZABLE");
+            assertThat(article.getCreatedDate()).isEqualTo(createdDate);
+
+            // DB 에 저장된 값 자체도 시간대 변환 없이 그대로
+            String storedDate = zonedDb.genSql().append("SELECT CAST(createdDate AS CHAR) FROM article WHERE id = ?", id).selectString();
+            assertThat(storedDate).isEqualTo("2025-09-01 12:30:00");
+
+            Boolean isBlind = zonedDb.genSql().append("SELECT isBlind FROM article WHERE id = ?", id).selectBoolean();
+            assertThat(isBlind).isTrue();
+        } finally {
+            zonedDb.shutdown();
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test
+    @DisplayName("selectRow, 같은 컬럼명은 하나로 합치고 마지막 값을 씀")
+    public void t042() {
+        Map<String, Object> row = simpleDb.genSql()
+                .append("SELECT id, title, `body` AS id FROM article WHERE id = ?", 1)
+                .selectRow();
+
+        assertThat(row).hasSize(2);
+        assertThat(row.keySet()).containsExactly("id", "title");
+        assertThat(row.get("id")).isEqualTo("내용1");
+        assertThat(row.entrySet()).containsExactly(Map.entry("id", "내용1"), Map.entry("title", "제목1"));
+    }
+
+    @Test
+    @DisplayName("결과 캐시, 받은 결과를 고쳐도 캐시된 결과는 그대로")
+    public void t043() {
+        simpleDb.setResultCacheEnabled(true);
+
+        try {
+            Sql sql = simpleDb.genSql().append("SELECT * FROM article WHERE id = ?", 1);
+
+            Map<String, Object> row1 = sql.selectRow();
+            row1.put("title", "바뀐 제목");
+
+            List<Map<String, Object>> rows1 = simpleDb.genSql().append("SELECT * FROM article ORDER BY id").selectRows();
+            rows1.getFirst().put("title", "바뀐 제목");
+            rows1.clear();
+
+            Map<String, Object> row2 = sql.selectRow();
+            List<Map<String, Object>> rows2 = simpleDb.genSql().append("SELECT * FROM article ORDER BY id").selectRows();
+
+            assertThat(row2).isNotSameAs(row1);
+            assertThat(row2.get("title")).isEqualTo("제목1");
+            assertThat(rows2).hasSize(6);
+            assertThat(rows2.getFirst().get("title")).isEqualTo("제목1");
+            assertThat(simpleDb.getResultCache().getHitCount()).isGreaterThanOrEqualTo(2);
+        } finally {
+            simpleDb.setResultCacheEnabled(false);
+        }
+    }
+
+    @Test
+    @DisplayName("replica, 첫 조회 전에 쓴 경우에도 쓰기 직후 조회는 primary 로")
+    public void t044() throws InterruptedException {
+        SimpleDb routedDb = new SimpleDb("localhost", "root", "wjdgh01!!", "simpleDb__test");
+        routedDb.setReplicaHosts(List.of("localhost:3306"));
+        routedDb.setReadYourWritesWindowMs(200);
+
+        try {
+            routedDb.genSql()
+                    .append("UPDATE article SET title = ? WHERE id = ?", "쓰기 먼저", 1)
+                    .update();
+
+            String title = routedDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+            ReplicaRouter.Replica replica = routedDb.getReplicaRouter().getReplicas().getFirst();
+
+            assertThat(title).isEqualTo("쓰기 먼저");
+            assertThat(replica.getBorrowCount()).isEqualTo(0);
+
+            Thread.sleep(300);
+            routedDb.genSql().append("SELECT title FROM article WHERE id = ?", 1).selectString();
+
+            assertThat(replica.getBorrowCount()).isEqualTo(1);
+        } finally {
+            routedDb.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("SQLite, 내장 DB 로 insert / 조회 / truncate")
+    public void t045() {
+        SimpleDb sqliteDb = SimpleDb.embedded(Dialect.SQLITE, ":memory:");
+
+        try {
+            sqliteDb.run("DROP TABLE IF EXISTS article");
+            sqliteDb.run("""
+                    CREATE TABLE article (
+                        id INTEGER PRIMARY KEY,
+                        title TEXT NOT NULL,
+                        isBlind %s NOT NULL
+                    )
+                    """.formatted(sqliteDb.getDialect().getBooleanType()));
+
+            long id = sqliteDb.genSql()
+                    .append("INSERT INTO article (title, isBlind) VALUES (?, ?)", "제목1", true)
+                    .insert();
+
+            assertThat(id).isEqualTo(1);
+
+            // 마지막 키만 돌려주는 DB 라도 insertAll 은 행마다 키를 채운다
+            long[] ids = sqliteDb.genSql()
+                    .append("INSERT INTO article (title, isBlind)")
+                    .appendValues(List.of(new Object[]{"제목2", false}, new Object[]{"제목3", false}))
+                    .insertAll();
+
+            assertThat(ids).containsExactly(2L, 3L);
+
+            Article article = sqliteDb.genSql().append("SELECT id, title FROM article WHERE id = ?", 2).selectRow(Article.class);
+
+            assertThat(article.getTitle()).isEqualTo("제목2");
+            assertThat(sqliteDb.genSql().append("SELECT isBlind FROM article WHERE id = ?", 1).selectBoolean()).isTrue();
+
+            sqliteDb.truncate("article");
+
+            assertThat(sqliteDb.genSql().append("SELECT COUNT(*) FROM article").selectLong()).isEqualTo(0);
+        } finally {
+            sqliteDb.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("커넥션 풀, maxPoolSize 를 넘으면 borrowTimeoutMs 뒤 SQLTimeoutException")
+    public void t046() throws SQLException {
+        SimpleDb pooledDb = new SimpleDb("localhost", "root", "wjdgh01!!", "simpleDb__test");
+        pooledDb.setMinPoolSize(0);
+        pooledDb.setMaxPoolSize(2);
+        pooledDb.setBorrowTimeoutMs(100);
+
+        try {
+            ConnectionPool pool = pooledDb.getPool();
+            PooledConnection pc1 = pool.borrow();
+            PooledConnection pc2 = pool.borrow();
+
+            assertThatThrownBy(pool::borrow).isInstanceOf(SQLTimeoutException.class);
+            assertThat(pool.getTotalCount()).isEqualTo(2);
+            assertThat(pool.getActiveCount()).isEqualTo(2);
+
+            // 같은 커넥션을 두 번 반납해도 한 자리만 돌아온다
+            pool.release(pc1);
+            pool.release(pc1);
+
+            assertThat(pool.getActiveCount()).isEqualTo(1);
+
+            PooledConnection pc3 = pool.borrow();
+
+            assertThatThrownBy(pool::borrow).isInstanceOf(SQLTimeoutException.class);
+
+            pool.release(pc2);
+            pool.release(pc3);
+
+            assertThat(pool.getActiveCount()).isEqualTo(0);
+            assertThat(pool.getTotalCount()).isEqualTo(2);
+        } finally {
+            pooledDb.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("커넥션 풀, warmUp 으로 미리 연결하고 오래 쉰 커넥션은 minPoolSize 까지 정리")
+    public void t047() throws SQLException, InterruptedException {
+        SimpleDb pooledDb = new SimpleDb("localhost", "root", "wjdgh01!!", "simpleDb__test");
+        pooledDb.setMinPoolSize(1);
+        pooledDb.setMaxPoolSize(3);
+        pooledDb.setIdleTimeoutMs(100);
+        pooledDb.setEvictionIntervalMs(50);
+
+        try {
+            pooledDb.warmUp();
+            ConnectionPool pool = pooledDb.getPool();
+
+            assertThat(pool.getCreatedCount()).isEqualTo(1);
+            assertThat(pool.getIdleCount()).isEqualTo(1);
+
+            List<PooledConnection> borrowed = List.of(pool.borrow(), pool.borrow(), pool.borrow());
+            borrowed.forEach(pool::release);
+
+            assertThat(pool.getTotalCount()).isEqualTo(3);
+
+            Thread.sleep(500);
+
+            assertThat(pool.getTotalCount()).isEqualTo(1);
+            assertThat(pool.getIdleCount()).isEqualTo(1);
+        } finally {
+            pooledDb.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("커넥션 풀, 끊긴 커넥션은 반납할 때 폐기하고 getConnection 은 새로 빌림")
+    public void t048() throws SQLException {
+        SimpleDb pooledDb = new SimpleDb("localhost", "root", "wjdgh01!!", "simpleDb__test");
+        pooledDb.setMinPoolSize(0);
+        pooledDb.setMaxPoolSize(1);
+        pooledDb.setBorrowTimeoutMs(100);
+
+        try {
+            ConnectionPool pool = pooledDb.getPool();
+            PooledConnection dead = pool.borrow();
+            dead.getConnection().close();
+            pool.release(dead);
+
+            assertThat(pool.getTotalCount()).isEqualTo(0);
+            assertThat(pool.getActiveCount()).isEqualTo(0);
+
+            // 스레드의 커넥션이 끊겨 있으면 반납(폐기) 후 새로 빌린다
+            Connection conn = pooledDb.getConnection();
+            conn.close();
+            Connection renewed = pooledDb.getConnection();
+
+            assertThat(renewed.isClosed()).isFalse();
+            assertThat(pool.getActiveCount()).isEqualTo(1);
+            assertThat(pool.getTotalCount()).isEqualTo(1);
+
+            pooledDb.close();
+            pooledDb.close();
+
+            assertThat(pool.getActiveCount()).isEqualTo(0);
+        } finally {
+            pooledDb.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("selectRow, 컬럼 추가/삭제도 일반 Map 처럼 동작")
+    public void t049() {
+        Map<String, Object> row = simpleDb.genSql()
+                .append("SELECT id, title, `body` FROM article WHERE id = ?", 1)
+                .selectRow();
+
+        row.put("title", "바뀐 제목");
+        row.put("extra", 10);
+        row.remove("body");
+
+        assertThat(row.keySet()).containsExactly("id", "title", "extra");
+        assertThat(row.get("title")).isEqualTo("바뀐 제목");
+        assertThat(row.get("extra")).isEqualTo(10);
+        assertThat(row.containsKey("body")).isFalse();
+
+        row.clear();
+
+        assertThat(row).isEmpty();
+    }
+
+    @Test
+    @DisplayName("SqlLogger, 실패한 SQL 과 스트림 조회도 기록")
+    public void t050() {
+        List<SqlLogEvent> events = new CopyOnWriteArrayList<>();
+        simpleDb.setSqlLogger(events::add);
+
+        try {
+            assertThatThrownBy(() -> simpleDb.genSql().append("SELECT * FROM no_such_table").selectRows())
+                    .isInstanceOf(RuntimeException.class);
+
+            simpleDb.genSql()
+                    .append("SELECT * FROM article WHERE isBlind = ?", false)
+                    .forEachRow(row -> {
+                    });
+        } finally {
+            simpleDb.setSqlLogger(null);
+        }
+
+        assertThat(events).hasSize(2);
+        assertThat(events.getFirst().sql()).isEqualTo("SELECT * FROM no_such_table");
+        assertThat(events.getFirst().failed()).isTrue();
+        assertThat(events.getFirst().error()).isInstanceOf(SQLException.class);
+        assertThat(events.get(1).sql()).isEqualTo("SELECT * FROM article WHERE isBlind = ?");
+        assertThat(events.get(1).failed()).isFalse();
+        assertThat(events.get(1).params()).containsExactly(false);
+    }
+
+    @Test
+    @DisplayName("결과 캐시, 빈 객체 결과도 캐시하고 호출마다 복사본 반환")
+    public void t051() {
+        simpleDb.setResultCacheEnabled(true);
+
+        try {
+            QueryResultCache cache = simpleDb.getResultCache();
+            long hitsBefore = cache.getHitCount();
+
+            List<Article> articles1 = simpleDb.genSql().append("SELECT * FROM article ORDER BY id").selectRows(Article.class);
+            articles1.getFirst().setTitle("바뀐 제목");
+
+            List<Article> articles2 = simpleDb.genSql().append("SELECT * FROM article ORDER BY id").selectRows(Article.class);
+
+            assertThat(cache.getHitCount()).isEqualTo(hitsBefore + 1);
+            assertThat(articles2.getFirst()).isNotSameAs(articles1.getFirst());
+            assertThat(articles2.getFirst().getTitle()).isEqualTo("제목1");
+            assertThat(articles2.getFirst().getCreatedDate()).isEqualTo(articles1.getFirst().getCreatedDate());
+        } finally {
+            simpleDb.setResultCacheEnabled(false);
+        }
+    }
+
+    @Test
+    @DisplayName("replica, 꽉 찬 replica 는 기다리지 않고 다음 replica 로")
+    public void t052() throws SQLException, InterruptedException {
+        SimpleDb routedDb = new SimpleDb("localhost", "root", "wjdgh01!!", "simpleDb__test");
+        routedDb.setReplicaHosts(List.of("localhost:3306", "127.0.0.1:3306"));
+        routedDb.setMaxPoolSize(1);
+        routedDb.setBorrowTimeoutMs(3_000);
+        routedDb.setReplicaHealthCheckIntervalMs(60_000);
+
+        try {
+            List<ReplicaRouter.Replica> replicas = routedDb.getReplicaRouter().getReplicas();
+            Thread.sleep(200); // 첫 헬스 체크가 끝나길 기다림
+
+            ConnectionPool busyPool = replicas.getFirst().getPool();
+            PooledConnection held = busyPool.borrow();
+            try {
+                long start = System.nanoTime();
+                routedDb.genSql().append("SELECT COUNT(*) FROM article").selectLong();
+                routedDb.genSql().append("SELECT COUNT(*) FROM article").selectLong();
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+                assertThat(elapsedMs).isLessThan(3_000L);
+                assertThat(replicas.getFirst().getBorrowCount()).isEqualTo(0);
+                assertThat(replicas.get(1).getBorrowCount()).isEqualTo(2);
+            } finally {
+                busyPool.release(held);
+            }
+        } finally {
+            routedDb.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("inTransaction, 중첩 호출이 바깥 트랜잭션과 다른 격리 수준/읽기 전용을 요청하면 예외")
+    public void t053() {
+        assertThatThrownBy(() -> simpleDb.inTransaction(TransactionIsolation.READ_COMMITTED, () ->
+                simpleDb.inTransaction(TransactionIsolation.SERIALIZABLE, () -> 1)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThatThrownBy(() -> simpleDb.inTransaction(TransactionIsolation.READ_COMMITTED, () ->
+                simpleDb.inReadOnlyTransaction(TransactionIsolation.READ_COMMITTED, () -> 1)))
+                .isInstanceOf(IllegalStateException.class);
+
+        // 같은 격리 수준이나 DEFAULT 는 savepoint 로 실행
+        long count = simpleDb.inTransaction(TransactionIsolation.READ_COMMITTED, () ->
+                simpleDb.inTransaction(TransactionIsolation.READ_COMMITTED, () ->
+                        simpleDb.inTransaction(() -> simpleDb.genSql().append("SELECT COUNT(*) FROM article").selectLong())));
+
+        assertThat(count).isEqualTo(6);
+        assertThat(simpleDb.isInTransaction()).isFalse();
+    }
 }
\ No newline at end of file